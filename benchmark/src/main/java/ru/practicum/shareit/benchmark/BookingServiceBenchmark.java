@@ -0,0 +1,97 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingSave;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    @Benchmark
+    public List<BookingViewDTO> findAllByOwnerId(ShareItState state) {
+        return state.getBean(BookingService.class)
+                .findAllByOwnerId(state.randomUserId(), BookingState.ALL, null, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingViewDTO> findAllByOwnerIdFuture(ShareItState state) {
+        return state.getBean(BookingService.class)
+                .findAllByOwnerId(state.randomUserId(), BookingState.FUTURE, null, 0, 20);
+    }
+
+    /**
+     * Вставка бронирования в статусе WAITING: поиск вещи и пользователя, проверка пересечений, insert.
+     * Вставленные бронирования удаляются после итерации (ShareItState.deleteInserted).
+     */
+    @Benchmark
+    public Booking save(ShareItState state) {
+        long itemId = state.randomItemId();
+        long bookerId = state.ownerOf(itemId) % state.users + 1;
+        BookingSave bookingSave = new BookingSave();
+        bookingSave.setItemId(itemId);
+        bookingSave.setStart(LocalDateTime.now().plusYears(1));
+        bookingSave.setEnd(LocalDateTime.now().plusYears(1).plusDays(1));
+        return state.getBean(BookingService.class).save(bookingSave, bookerId);
+    }
+
+    /**
+     * Вставка rows бронирований одним saveAll репозитория в одной транзакции. С id из последовательности
+     * (pooled-lo) Hibernate отправляет insert пакетами по hibernate.jdbc.batch_size, с IDENTITY - по одному,
+     * чтобы прочитать сгенерированный id; -p batchSize=1,50 сравнивает оба режима отправки.
+     */
+    @Benchmark
+    public List<Booking> saveAll(ShareItState state, BookingRows bookingRows) {
+        return state.getBean(TransactionTemplate.class).execute(status -> {
+            long itemId = state.randomItemId();
+            User booker = state.getBean(UserRepository.class).getReferenceById(state.ownerOf(itemId) % state.users + 1);
+            Item item = state.getBean(ItemRepository.class).getReferenceById(itemId);
+            LocalDateTime start = LocalDateTime.now().plusYears(1);
+            List<Booking> bookings = new ArrayList<>(bookingRows.rows);
+            for (int i = 0; i < bookingRows.rows; i++) {
+                bookings.add(Booking.builder()
+                        .user(booker)
+                        .item(item)
+                        .startDate(start.plusDays(i))
+                        .endDate(start.plusDays(i).plusHours(1))
+                        .bookingStatus(BookingStatus.WAITING)
+                        .build());
+            }
+            return state.getBean(BookingRepository.class).saveAll(bookings);
+        });
+    }
+
+    @State(Scope.Benchmark)
+    public static class BookingRows {
+
+        @Param("100")
+        public int rows;
+    }
+}
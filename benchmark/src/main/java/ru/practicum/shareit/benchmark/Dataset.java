@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные бенчмарков: каждый пользователь владеет itemsPerOwner вещами и оставляет один запрос;
+ * у каждой вещи bookingsPerItem непересекающихся подтверждённых бронирований (половина в прошлом,
+ * половина в будущем) и commentsPerItem отзывов. Первая вещь каждого владельца оформлена как ответ
+ * на запрос соседа. Id строк идут подряд с 1, последовательности сдвигаются за вставленные id.
+ */
+final class Dataset {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private Dataset() {
+    }
+
+    record Seeded(long items, long bookings) {
+    }
+
+    static Seeded seed(JdbcTemplate jdbcTemplate, int users, int itemsPerOwner, int bookingsPerItem, int commentsPerItem) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> requestRows = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            userRows.add(new Object[]{userId, "user" + userId, "user" + userId + "@mail.ru"});
+            requestRows.add(new Object[]{userId, "Need a drill " + userId, userId, Timestamp.valueOf(now.minusHours(userId))});
+        }
+        insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", userRows);
+        insert(jdbcTemplate, "INSERT INTO requests (id, description, user_id, create_date) VALUES (?, ?, ?, ?)", requestRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        List<Object[]> commentRows = new ArrayList<>();
+        long itemId = 0;
+        long bookingId = 0;
+        long commentId = 0;
+        for (long ownerId = 1; ownerId <= users; ownerId++) {
+            long neighbourId = ownerId % users + 1;
+            for (int i = 0; i < itemsPerOwner; i++) {
+                itemId++;
+                Long requestId = i == 0 ? neighbourId : null;
+                itemRows.add(new Object[]{itemId, ownerId, "Drill " + itemId, "Cordless drill " + itemId, true, requestId});
+                LocalDateTime start = now.minusDays(bookingsPerItem);
+                for (int b = 0; b < bookingsPerItem; b++) {
+                    bookingId++;
+                    bookingRows.add(new Object[]{bookingId, neighbourId, itemId,
+                            Timestamp.valueOf(start.plusDays(2L * b)), Timestamp.valueOf(start.plusDays(2L * b + 1)),
+                            "APPROVED"});
+                }
+                for (int c = 0; c < commentsPerItem; c++) {
+                    commentId++;
+                    commentRows.add(new Object[]{commentId, itemId, "Comment " + commentId, neighbourId});
+                }
+            }
+        }
+        insert(jdbcTemplate, "INSERT INTO items (item_id, user_id, name, description, available, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", itemRows);
+        insert(jdbcTemplate, "INSERT INTO bookings (booking_id, user_id, item_id, start_date, end_date, booking_status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookingRows);
+        insert(jdbcTemplate, "INSERT INTO comments (id, item_id, text, user_id) VALUES (?, ?, ?, ?)", commentRows);
+
+        restartSequence(jdbcTemplate, "users_seq", users);
+        restartSequence(jdbcTemplate, "requests_seq", users);
+        restartSequence(jdbcTemplate, "items_seq", itemId);
+        restartSequence(jdbcTemplate, "bookings_seq", bookingId);
+        restartSequence(jdbcTemplate, "comments_seq", commentId);
+        return new Seeded(itemId, bookingId);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+    }
+}
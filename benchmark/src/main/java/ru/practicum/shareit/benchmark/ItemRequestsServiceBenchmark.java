@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.request.ItemRequestsService;
+import ru.practicum.shareit.request.dto.ItemRequestViewDto;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestsServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<ItemRequestViewDto> findAll(ShareItState state) {
+        int pages = Math.max(1, state.users / PAGE_SIZE);
+        int from = ThreadLocalRandom.current().nextInt(pages) * PAGE_SIZE;
+        return state.getBean(ItemRequestsService.class).findAll(from, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemBatchRowResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemViewOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public List<ItemViewOwner> findAllByUserId(ShareItState state) {
+        return state.getBean(ItemService.class).findAllByUserId(state.randomUserId(), null, 10);
+    }
+
+    @Benchmark
+    public ItemViewOwner findById(ShareItState state) {
+        long itemId = state.randomItemId();
+        return state.getBean(ItemService.class).findById(itemId, state.ownerOf(itemId));
+    }
+
+    @Benchmark
+    public List<ItemView> findAllByName(ShareItState state) {
+        return state.getBean(ItemService.class).findAllByName("drill", 0, 20);
+    }
+
+    /**
+     * Импорт rows вещей одним вызовом; сравнение -p batchSize=1,50 показывает выигрыш пакетной вставки.
+     */
+    @Benchmark
+    public List<ItemBatchRowResult> saveAll(ShareItState state, ImportRows importRows) {
+        return state.getBean(ItemService.class).saveAll(importRows.items, state.randomUserId());
+    }
+
+    @State(Scope.Benchmark)
+    public static class ImportRows {
+
+        @Param("100")
+        public int rows;
+
+        private List<ItemDto> items;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            items = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                items.add(ItemDto.builder()
+                        .name("Imported " + i)
+                        .description("Imported item " + i)
+                        .available(true)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemBookingPointerSweeper;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Контекст сервера поверх PostgreSQL (по умолчанию база из docker-compose.yml на localhost:6541),
+ * заполненного данными Dataset. При indexes=false вторичные индексы списков из schema.sql удаляются
+ * перед замером и восстанавливаются повторным применением schema.sql после него, поэтому один прогон
+ * сравнивает одни и те же запросы с индексами и без. Планы горячих запросов (EXPLAIN ANALYZE)
+ * печатаются в вывод прогона. Кэши отключены, чтобы каждый вызов шёл в базу.
+ * Таблицы очищаются при старте: запускать только на отдельной базе.
+ */
+@State(Scope.Benchmark)
+public class PostgresIndexState {
+
+    /**
+     * Индексы из schema.sql под фильтры и сортировки списков; первичные ключи, ограничения и индексы
+     * schema-postgresql.sql не трогаются.
+     */
+    private static final List<String> SECONDARY_INDEXES = List.of(
+            "idx_requests_user_create_date",
+            "idx_requests_create_date",
+            "idx_items_user_id",
+            "idx_items_request_id",
+            "idx_items_next_booking_start",
+            "idx_bookings_item_status_start",
+            "idx_bookings_user_start",
+            "idx_bookings_user_status_start",
+            "idx_bookings_user_item_end",
+            "idx_bookings_user_end",
+            "idx_comments_item_id"
+    );
+
+    @Param("5000")
+    public int users;
+
+    @Param("10")
+    public int itemsPerOwner;
+
+    @Param("20")
+    public int bookingsPerItem;
+
+    @Param("5")
+    public int commentsPerItem;
+
+    @Param({"true", "false"})
+    public boolean indexes;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=" + System.getProperty("shareit.benchmark.db.url",
+                        "jdbc:postgresql://localhost:6541/shareit"),
+                "--spring.datasource.driverClassName=org.postgresql.Driver",
+                "--spring.datasource.username=" + System.getProperty("shareit.benchmark.db.username", "shareit"),
+                "--spring.datasource.password=" + System.getProperty("shareit.benchmark.db.password", "shareit"),
+                "--spring.sql.init.platform=postgresql",
+                "--spring.cache.type=none",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--logging.level.root=WARN"
+        );
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE comments, bookings, items, requests, users");
+        Dataset.seed(jdbcTemplate, users, itemsPerOwner, bookingsPerItem, commentsPerItem);
+        context.getBean(ItemBookingPointerSweeper.class).backfill();
+        if (!indexes) {
+            SECONDARY_INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+        }
+        jdbcTemplate.execute("ANALYZE");
+        printPlans(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!indexes) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(context.getBean(DataSource.class));
+        }
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(users) + 1;
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextLong((long) users * itemsPerOwner) + 1;
+    }
+
+    public long bookerOf(long itemId) {
+        return ((itemId - 1) / itemsPerOwner + 1) % users + 1;
+    }
+
+    /**
+     * Те же условия, что у запросов репозиториев, с фиксированными id из середины данных.
+     */
+    private void printPlans(JdbcTemplate jdbcTemplate) {
+        long userId = users / 2;
+        long itemId = (long) users * itemsPerOwner / 2;
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("bookings of booker", "SELECT * FROM bookings b WHERE b.user_id = " + userId +
+                " ORDER BY b.start_date, b.booking_id LIMIT 20");
+        queries.put("past bookings of booker", "SELECT * FROM bookings b WHERE b.user_id = " + userId +
+                " AND b.end_date <= now() ORDER BY b.start_date, b.booking_id LIMIT 20");
+        queries.put("future bookings of owner", "SELECT b.* FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                "WHERE i.user_id = " + userId + " AND b.start_date > now() ORDER BY b.start_date, b.booking_id LIMIT 20");
+        queries.put("approved bookings of item", "SELECT * FROM bookings b WHERE b.item_id = " + itemId +
+                " AND b.booking_status = 'APPROVED' ORDER BY b.start_date");
+        queries.put("completed booking check", "SELECT EXISTS (SELECT 1 FROM bookings b WHERE b.user_id = " +
+                bookerOf(itemId) + " AND b.item_id = " + itemId + " AND b.end_date <= now())");
+        queries.put("items of owner", "SELECT * FROM items i WHERE i.user_id = " + userId +
+                " ORDER BY i.item_id LIMIT 20");
+        queries.put("responses to request", "SELECT * FROM items i WHERE i.request_id = " + userId);
+        queries.put("comments of item", "SELECT * FROM comments c WHERE c.item_id = " + itemId);
+        queries.put("requests of user", "SELECT * FROM requests r WHERE r.user_id = " + userId +
+                " ORDER BY r.create_date");
+        queries.forEach((name, sql) -> {
+            System.out.println("-- " + name + " (indexes=" + indexes + ")");
+            jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class).forEach(System.out::println);
+        });
+    }
+}
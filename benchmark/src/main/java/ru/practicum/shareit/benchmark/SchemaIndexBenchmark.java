@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemViewOwner;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.ItemRequestsRepository;
+import ru.practicum.shareit.request.dto.ItemRequestViewDto;
+import ru.practicum.shareit.request.dto.ResponseViewDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие запросы репозиториев, для которых schema.sql заводит вторичные индексы, на PostgreSQL
+ * с индексами и без (параметр indexes, см. PostgresIndexState).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaIndexBenchmark {
+
+    @Benchmark
+    public List<Booking> bookingsOfBooker(PostgresIndexState state) {
+        return state.getBean(BookingRepository.class).findAllByBookerIdAndState(
+                state.randomUserId(), BookingState.ALL, LocalDateTime.now(), null, null, OffsetPageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Booking> pastBookingsOfBooker(PostgresIndexState state) {
+        return state.getBean(BookingRepository.class).findAllByBookerIdAndState(
+                state.randomUserId(), BookingState.PAST, LocalDateTime.now(), null, null, OffsetPageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Booking> futureBookingsOfOwner(PostgresIndexState state) {
+        return state.getBean(BookingRepository.class).findAllByOwnerIdAndState(
+                state.randomUserId(), BookingState.FUTURE, LocalDateTime.now(), null, null, OffsetPageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<BookingViewDTO> approvedBookingsOfItem(PostgresIndexState state) {
+        return state.getBean(BookingRepository.class).findAllApprovedByItemId(state.randomItemId());
+    }
+
+    @Benchmark
+    public boolean completedBookingCheck(PostgresIndexState state) {
+        long itemId = state.randomItemId();
+        return state.getBean(BookingRepository.class)
+                .existsCompletedByUserIdAndItemId(state.bookerOf(itemId), itemId, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<ItemViewOwner> itemsOfOwner(PostgresIndexState state) {
+        return state.getBean(ItemRepository.class).findAllByUserId(state.randomUserId(), null, LocalDateTime.now(), 20);
+    }
+
+    @Benchmark
+    public List<ResponseViewDto> responsesToRequest(PostgresIndexState state) {
+        return state.getBean(ItemRepository.class).findAllByRequestIdIn(List.of(state.randomUserId()));
+    }
+
+    @Benchmark
+    public List<CommentView> commentsOfItem(PostgresIndexState state) {
+        return state.getBean(CommentRepository.class).findAllByItemId(state.randomItemId());
+    }
+
+    @Benchmark
+    public List<ItemRequestViewDto> requestsOfUser(PostgresIndexState state) {
+        return state.getBean(ItemRequestsRepository.class).findAllByUserIdOrderByCreateDate(state.randomUserId());
+    }
+}
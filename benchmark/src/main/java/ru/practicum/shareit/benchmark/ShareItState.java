@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemBookingPointerSweeper;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Контекст сервера без веб-слоя поверх H2 в памяти, заполненной тестовыми данными заданного объёма
+ * (см. Dataset). Строки, вставленные бенчмарками записи, удаляются после каждой итерации, поэтому
+ * объём таблиц не растёт со временем прогона.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    @Param("200")
+    public int users;
+
+    @Param("10")
+    public int itemsPerOwner;
+
+    @Param("10")
+    public int bookingsPerItem;
+
+    @Param("5")
+    public int commentsPerItem;
+
+    /**
+     * Кэш представлений вещей и кэш второго уровня Hibernate; false — каждый вызов идёт в базу.
+     */
+    @Param("true")
+    public boolean caches;
+
+    /**
+     * hibernate.jdbc.batch_size; 1 отключает пакетную вставку.
+     */
+    @Param("50")
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private long seededItems;
+    private long seededBookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:shareit-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.platform=h2",
+                "--spring.cache.type=" + (caches ? "caffeine" : "none"),
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + caches,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--logging.level.root=WARN"
+        );
+        Dataset.Seeded seeded = Dataset.seed(context.getBean(JdbcTemplate.class),
+                users, itemsPerOwner, bookingsPerItem, commentsPerItem);
+        seededItems = seeded.items();
+        seededBookings = seeded.bookings();
+        context.getBean(ItemBookingPointerSweeper.class).backfill();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM bookings WHERE booking_id > ?", seededBookings);
+        jdbcTemplate.update("DELETE FROM items WHERE item_id > ?", seededItems);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(users) + 1;
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextLong((long) users * itemsPerOwner) + 1;
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) / itemsPerOwner + 1;
+    }
+}
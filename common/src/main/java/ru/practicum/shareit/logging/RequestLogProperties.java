@@ -0,0 +1,26 @@
+package ru.practicum.shareit.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки выборочного лога HTTP-запросов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-log")
+public class RequestLogProperties {
+
+    /**
+     * Доля успешных запросов, попадающих в лог (0.0 - 1.0).
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Запросы дольше этого порога логируются всегда, независимо от выборки.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.logging;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+@ConditionalOnProperty(prefix = "shareit.request-log", name = "enabled", matchIfMissing = true)
+public class RequestLoggingConfig {
+
+    @Bean
+    public RequestLoggingFilter requestLoggingFilter(RequestLogProperties properties) {
+        return new RequestLoggingFilter(properties);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одна строка key=value на HTTP-запрос: метод, путь, статус, задержка и id пользователя.
+ * Успешные быстрые запросы логируются выборочно (sample-rate); ошибки 5xx и медленные запросы - всегда.
+ * Если обработчик перевёл запрос в асинхронный режим (StreamingResponseBody, DeferredResult),
+ * первый проход фильтра ещё не знает итогового статуса и длительности, поэтому строка пишется
+ * AsyncListener по завершении асинхронной обработки, в том числе после ошибки или таймаута.
+ */
+@Slf4j(topic = "shareit.request")
+@RequiredArgsConstructor
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RequestLogProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                log(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long start) {
+        long latencyNanos = System.nanoTime() - start;
+        if (log.isInfoEnabled() && shouldLog(status, latencyNanos)) {
+            log.info("method={} path={} status={} latencyMs={} userId={}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    status,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos),
+                    request.getHeader(USER_ID_HEADER));
+        }
+    }
+
+    private boolean shouldLog(int status, long latencyNanos) {
+        return status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || latencyNanos > properties.getSlowThreshold().toNanos()
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    /**
+     * onComplete вызывается контейнером один раз в конце асинхронной обработки, после onError
+     * и onTimeout тоже, поэтому строка пишется только в нём. Ошибка записи тела ответа
+     * логируется как 500, даже если статус 200 уже отправлен клиенту.
+     */
+    @RequiredArgsConstructor
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private volatile boolean failed;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), start);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
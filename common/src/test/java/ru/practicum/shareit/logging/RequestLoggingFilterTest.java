@@ -0,0 +1,98 @@
+package ru.practicum.shareit.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class RequestLoggingFilterTest {
+
+    private RequestLogProperties properties;
+    private RequestLoggingFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new RequestLogProperties();
+        properties.setSampleRate(0.0);
+        filter = new RequestLoggingFilter(properties);
+    }
+
+    @Test
+    public void notSampledRequestIsNotLoggedTest(CapturedOutput output) throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(output.getOut(), not(containsString("path=/items/1")));
+    }
+
+    @Test
+    public void sampledRequestIsLoggedTest(CapturedOutput output) throws Exception {
+        properties.setSampleRate(1.0);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(output.getOut(), containsString("method=GET path=/items/1 status=200 latencyMs="));
+        assertThat(output.getOut(), containsString("userId=5"));
+    }
+
+    @Test
+    public void serverErrorIsAlwaysLoggedTest(CapturedOutput output) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+        filter.doFilter(request(), response, new MockFilterChain());
+
+        assertThat(output.getOut(), containsString("method=GET path=/items/1 status=503"));
+    }
+
+    @Test
+    public void asyncRequestIsLoggedOnCompletionTest(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertThat(output.getOut(), not(containsString("path=/items/1")));
+
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        request.getAsyncContext().complete();
+
+        assertThat(output.getOut(), containsString("method=GET path=/items/1 status=503"));
+    }
+
+    @Test
+    public void asyncErrorIsLoggedAsServerErrorTest(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+        asyncContext.complete();
+
+        assertThat(output.getOut(), containsString("method=GET path=/items/1 status=500"));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader("X-Sharer-User-Id", 5);
+        return request;
+    }
+}
@@ -1,12 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -19,22 +20,21 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Long afterId, Integer from, Integer size) {
+        return getPage("", userId, state, afterId, from, size);
     }
 
     public ResponseEntity<Object> create(long userId, BookItemRequestDto requestDto) {
@@ -45,11 +45,8 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findByOwnerItemId(Long ownerId, BookingState status) {
-        Map<String, Object> parameters = Map.of(
-                "status", status
-        );
-        return get("/owner",  ownerId, parameters);
+    public ResponseEntity<Object> findByOwnerItemId(Long ownerId, BookingState state, Long afterId, Integer from, Integer size) {
+        return getPage("/owner", ownerId, state, afterId, from, size);
     }
 
     public ResponseEntity<Object> bookingConfirmationOrRejection(Long bookingId, Boolean approved, Long userId) {
@@ -58,4 +55,16 @@ public class BookingClient extends BaseClient {
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters);
     }
+
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, Long afterId, Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+            return get(path + "?state={state}&afterId={afterId}&from={from}&size={size}", userId, parameters);
+        }
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+    }
 }
@@ -27,13 +27,14 @@ public class BookingController {
     public ResponseEntity<Object> findAllByUserId(
             @RequestHeader(HttpHeaders.USER_ID_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @Positive @RequestParam(name = "afterId", required = false) Long afterId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
     ) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.debug("Get booking with state {}, userId={}, afterId={}, from={}, size={}", stateParam, userId, afterId, from, size);
+        return bookingClient.getBookings(userId, state, afterId, from, size);
     }
 
     @GetMapping("/{bookingId}")
@@ -41,19 +42,23 @@ public class BookingController {
             @RequestHeader(HttpHeaders.USER_ID_HEADER) long userId,
             @PathVariable Long bookingId
     ) {
-        log.info("Get booking {}, userId={}", bookingId, userId);
+        log.debug("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.findByBookingId(userId, bookingId);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findByOwnerItemId(
             @RequestHeader(HttpHeaders.USER_ID_HEADER) long ownerItemId,
-            @RequestParam(name = "state", defaultValue = "all") String stateParam
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @Positive @RequestParam(name = "afterId", required = false) Long afterId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
     ) {
         BookingState bookingState = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}", stateParam);
-        return bookingClient.findByOwnerItemId(ownerItemId, bookingState);
+        log.debug("Get owner bookings with state {}, ownerId={}, afterId={}, from={}, size={}",
+                stateParam, ownerItemId, afterId, from, size);
+        return bookingClient.findByOwnerItemId(ownerItemId, bookingState, afterId, from, size);
     }
 
     @PostMapping
@@ -61,7 +66,7 @@ public class BookingController {
             @RequestHeader(HttpHeaders.USER_ID_HEADER) long userId,
             @RequestBody @Valid BookItemRequestDto requestDto
     ) {
-        log.info("Creating booking {}, userId={}", requestDto, userId);
+        log.debug("Creating booking for item {}, userId={}", requestDto.getItemId(), userId);
         return bookingClient.create(userId, requestDto);
     }
 
@@ -1,24 +1,39 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
     protected final RestTemplate rest;
 
+    private boolean passthrough;
+
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
     }
 
+    @Value("${shareit-server.passthrough:false}")
+    public void setPassthrough(boolean passthrough) {
+        this.passthrough = passthrough;
+    }
+
     protected ResponseEntity<Object> get(String path, Map<String, Object> params) {
         return makeAndSendRequest(HttpMethod.GET, path, null, params, null);
     }
@@ -87,9 +102,43 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * GET-запрос, тело ответа которого копируется клиенту по мере получения от сервера, без буферизации
+     * в памяти шлюза. Статус и заголовки сервера читаются до возврата ответа шлюза, поэтому ошибка сервера
+     * передаётся клиенту со своим статусом, а не как 200 с пустым или усечённым телом.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            response = request.execute();
+            ClientHttpResponse upstream = response;
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(upstream.getStatusCode());
+            if (upstream.getHeaders().getContentType() != null) {
+                responseBuilder.contentType(upstream.getHeaders().getContentType());
+            }
+            return responseBuilder.body(out -> {
+                try (upstream) {
+                    upstream.getBody().transferTo(out);
+                }
+            });
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
+        if (passthrough) {
+            return makeAndSendPassthroughRequest(method, path, parameters, requestEntity);
+        }
+
         ResponseEntity<Object> shareitServerResponse;
         try {
             if (parameters != null) {
@@ -103,6 +152,27 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Тело ответа сервера передаётся клиенту как есть, без разбора JSON в Object и повторной сериализации.
+     */
+    private <T> ResponseEntity<Object> makeAndSendPassthroughRequest(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return preparePassthroughResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return preparePassthroughResponse(
+                shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody()
+        );
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -126,4 +196,17 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static ResponseEntity<Object> preparePassthroughResponse(HttpStatusCode status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (headers != null && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
+        }
+
+        return responseBuilder.build();
+    }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула HTTP-соединений шлюза к shareit-server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+
+    /**
+     * Максимальное число соединений в пуле.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимальное число соединений к одному хосту.
+     */
+    private int maxPerRoute = 100;
+
+    /**
+     * Таймаут установки TCP-соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Таймаут ожидания ответа сервера.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное время ожидания свободного соединения из пула.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Время удержания соединения, если сервер не прислал заголовок Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Простаивающие дольше этого соединения закрываются фоновым потоком.
+     */
+    private Duration idleEvictTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Соединение, простоявшее дольше этого, проверяется перед выдачей из пула.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Максимальное время жизни соединения.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Пул соединений, измеряющий время получения соединения (метрика shareit.http.pool.lease).
+ */
+public class TimedPoolingConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseTimer;
+
+    public TimedPoolingConnectionManager(
+            Registry<ConnectionSocketFactory> socketFactoryRegistry,
+            TimeValue timeToLive,
+            MeterRegistry meterRegistry
+    ) {
+        super(socketFactoryRegistry, PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, timeToLive);
+        this.leaseTimer = Timer.builder("shareit.http.pool.lease")
+                .description("Time spent waiting for a connection from the gateway HTTP pool")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        Timer.Sample sample = Timer.start();
+        LeaseRequest leaseRequest = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    return leaseRequest.get(timeout);
+                } finally {
+                    sample.stop(leaseTimer);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+}
@@ -4,8 +4,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.SaveComment;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -21,33 +23,58 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> findAllByUserId(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> findAllByUserId(long userId, Long afterId, Integer size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("size", size);
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            return get("?afterId={afterId}&size={size}", userId, params);
+        }
+        return get("?size={size}", userId, params);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamAllByUserId(long userId, Long afterId) {
+        Map<String, Object> params = new HashMap<>();
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            return stream("?stream=true&afterId={afterId}", userId, params);
+        }
+        return stream("?stream=true", userId, params);
     }
 
     public ResponseEntity<Object> findItemById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllByName(String text) {
+    public ResponseEntity<Object> getAllByName(String text, Integer from, Integer size) {
         Map<String, Object> params = new HashMap<>();
         params.put("text", text);
-        return get("", params);
+        params.put("from", from);
+        params.put("size", size);
+        return get("/search?text={text}&from={from}&size={size}", params);
     }
 
     public ResponseEntity<Object> save(ItemSaveDto itemSaveDto, long userId) {
         return post("", userId, itemSaveDto);
     }
 
+    public ResponseEntity<Object> saveAll(List<ItemSaveDto> itemSaveDtos, long userId) {
+        return post("/batch", userId, itemSaveDtos);
+    }
+
     public ResponseEntity<Object> update(long itemId, ItemUpdateDto itemUpdateDto, long userId) {
         return patch("/" + itemId, userId, itemUpdateDto);
     }
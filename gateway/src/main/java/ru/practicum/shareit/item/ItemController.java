@@ -1,24 +1,49 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.constant.HttpHeaders;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.SaveComment;
 
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/items")
+@Validated
 public class ItemController {
 
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(@RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId) {
-        return itemClient.findAllByUserId(userId);
+    public ResponseEntity<Object> getItemsByUserId(
+            @RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId,
+            @Positive @RequestParam(name = "afterId", required = false) Long afterId,
+            @Positive @Max(100) @RequestParam(name = "size", defaultValue = "10") Integer size
+    ) {
+        return itemClient.findAllByUserId(userId, afterId, size);
+    }
+
+    /**
+     * Потоковая выдача всех вещей владельца: тело ответа сервера передаётся клиенту по мере получения,
+     * статус ответа - статус сервера.
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamItemsByUserId(
+            @RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId,
+            @Positive @RequestParam(name = "afterId", required = false) Long afterId
+    ) {
+        return itemClient.streamAllByUserId(userId, afterId);
     }
 
     @GetMapping("/{itemId}")
@@ -30,8 +55,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getAllByName(@RequestParam String text) {
-        return itemClient.getAllByName(text);
+    public ResponseEntity<Object> getAllByName(
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+    ) {
+        return itemClient.getAllByName(text, from, size);
     }
 
     @PostMapping
@@ -42,6 +71,18 @@ public class ItemController {
         return itemClient.save(itemSaveDto, userId);
     }
 
+    /**
+     * Пакетный импорт: строки проверяет сервер и возвращает ошибки по каждой строке,
+     * поэтому здесь проверяется только, что пакет не пуст.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Object> saveAll(
+            @NotEmpty @RequestBody List<ItemSaveDto> itemSaveDtos,
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) long userId
+    ) {
+        return itemClient.saveAll(itemSaveDtos, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(
             @PathVariable long itemId,
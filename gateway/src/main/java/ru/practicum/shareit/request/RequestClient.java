@@ -3,28 +3,38 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.SaveItemRequestDto;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class RequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> findAll() {
-        return get("/all");
+    public ResponseEntity<Object> findAll(Integer from, Integer size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("from", from);
+        params.put("size", size);
+        return get("/all?from={from}&size={size}", params);
     }
 
     public ResponseEntity<Object> findAllByRequestId(long requestId) {
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.constant.HttpHeaders;
 import ru.practicum.shareit.request.dto.SaveItemRequestDto;
@@ -9,13 +12,17 @@ import ru.practicum.shareit.request.dto.SaveItemRequestDto;
 @RestController
 @AllArgsConstructor
 @RequestMapping("/requests")
+@Validated
 public class RequestController {
 
     private final RequestClient requestClient;
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAll() {
-        return requestClient.findAll();
+    public ResponseEntity<Object> findAll(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+    ) {
+        return requestClient.findAll(from, size);
     }
 
     @GetMapping("/{requestId}")
@@ -3,28 +3,46 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.User;
 import ru.practicum.shareit.user.dto.UserUpdate;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> findAll() {
-        return get("");
+    public ResponseEntity<Object> findAll(String text, Long afterId, Integer size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("size", size);
+        StringBuilder path = new StringBuilder("?size={size}");
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            path.append("&afterId={afterId}");
+        }
+        if (text != null && !text.isBlank()) {
+            params.put("text", text);
+            path.append("&text={text}");
+        }
+        return get(path.toString(), params);
     }
 
     public ResponseEntity<Object> findById(long id) {
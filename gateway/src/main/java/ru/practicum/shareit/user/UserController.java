@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.User;
 import ru.practicum.shareit.user.dto.UserUpdate;
@@ -11,13 +14,18 @@ import ru.practicum.shareit.user.dto.UserUpdate;
 @RestController
 @RequestMapping("/users")
 @AllArgsConstructor
+@Validated
 public class UserController {
 
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> findByAll() {
-        return userClient.findAll();
+    public ResponseEntity<Object> findByAll(
+            @RequestParam(name = "text", required = false) String text,
+            @Positive @RequestParam(name = "afterId", required = false) Long afterId,
+            @Positive @Max(100) @RequestParam(name = "size", defaultValue = "10") Integer size
+    ) {
+        return userClient.findAll(text, afterId, size);
     }
 
     @GetMapping("/{id}")
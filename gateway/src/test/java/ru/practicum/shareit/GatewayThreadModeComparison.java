@@ -0,0 +1,178 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение режимов потоков шлюза: platform (пул Tomcat, 200 потоков) и virtual
+ * (spring.threads.virtual.enabled). Вместо shareit-server поднимается заглушка, которая отвечает
+ * на любой запрос через фиксированную задержку, поэтому разница режимов не смешивается
+ * со временем работы сервера и базы. Для каждого режима и уровня числа клиентов в закрытом цикле
+ * выполняется GET /users/{id}, в вывод пишутся req/s, p50/p99 и число ошибок.
+ *
+ * <pre>
+ * mvn -pl gateway -am test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=ru.practicum.shareit.GatewayThreadModeComparison \
+ *     -Dexec.args="delayMs=50 concurrency=100,200,400,800 warmup=5 duration=15 modes=platform,virtual"
+ * </pre>
+ */
+public class GatewayThreadModeComparison {
+
+    private static final byte[] USER_JSON = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        long delayMs = 50;
+        int[] concurrency = {100, 200, 400, 800};
+        int warmup = 5;
+        int duration = 15;
+        String[] modes = {"platform", "virtual"};
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            switch (pair[0]) {
+                case "delayMs" -> delayMs = Long.parseLong(pair[1]);
+                case "concurrency" -> concurrency = Arrays.stream(pair[1].split(","))
+                        .mapToInt(Integer::parseInt).toArray();
+                case "warmup" -> warmup = Integer.parseInt(pair[1]);
+                case "duration" -> duration = Integer.parseInt(pair[1]);
+                case "modes" -> modes = pair[1].split(",");
+                default -> throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+
+        HttpServer backend = startBackend(delayMs);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        try {
+            for (String mode : modes) {
+                try (ConfigurableApplicationContext gateway = startGateway(backend, mode.equals("virtual"))) {
+                    int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                    for (int clients : concurrency) {
+                        run(client, port, clients, warmup);
+                        Result result = run(client, port, clients, duration);
+                        System.out.printf("mode=%s delay=%dms clients=%d: %.1f req/s, p50 %.1f ms, p99 %.1f ms, "
+                                        + "errors %d%n",
+                                mode, delayMs, clients, result.throughput(), result.p50Ms(), result.p99Ms(),
+                                result.errors());
+                    }
+                }
+            }
+        } finally {
+            backend.stop(0);
+        }
+    }
+
+    private static HttpServer startBackend(long delayMs) throws IOException {
+        HttpServer backend = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        backend.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        backend.createContext("/", exchange -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER_JSON);
+            }
+        });
+        backend.start();
+        return backend;
+    }
+
+    /**
+     * Пул соединений к серверу больше числа клиентов, иначе при 100 соединениях по умолчанию
+     * запросы ждут соединения в обоих режимах и разница режимов не видна.
+     */
+    private static ConfigurableApplicationContext startGateway(HttpServer backend, boolean virtualThreads) {
+        return new SpringApplicationBuilder(ShareItGateway.class)
+                .properties(
+                        "server.port=0",
+                        "shareit-server.url=http://localhost:" + backend.getAddress().getPort(),
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "shareit-server.http.max-total=2000",
+                        "shareit-server.http.max-per-route=2000",
+                        "shareit.request-log.sample-rate=0")
+                .run();
+    }
+
+    private static Result run(HttpClient client, int port, int clients, int seconds) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < clients; i++) {
+            executor.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/users/" + ThreadLocalRandom.current().nextInt(1, 1000))).GET().build();
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = 0;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    recorder.record(System.nanoTime() - start, status);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        Result result = recorder.summarize((System.nanoTime() - start) / 1e9);
+        executor.shutdownNow();
+        executor.awaitTermination(60, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status != 200) {
+                errors++;
+            }
+        }
+
+        synchronized Result summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(count / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private record Result(double throughput, double p50Ms, double p99Ms, long errors) {
+    }
+}
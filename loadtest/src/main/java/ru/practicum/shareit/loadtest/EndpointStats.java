@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Задержки и ошибки по эндпоинтам за один этап прогона (прогрев или замер).
+ */
+public class EndpointStats {
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, GatewayClient.Response response) {
+        recorders.computeIfAbsent(endpoint, name -> new Recorder()).record(response.nanos(), response.status());
+    }
+
+    /**
+     * Сводка по эндпоинтам: число вызовов, ошибки, пропускная способность и перцентили задержки в мс.
+     */
+    public Map<String, Map<String, Object>> summarize(double seconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        recorders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> summary.put(entry.getKey(), entry.getValue().summarize(seconds)));
+        return summary;
+    }
+
+    /**
+     * Сводка по всем эндпоинтам вместе: общая пропускная способность и перцентили задержки.
+     */
+    public Map<String, Object> summarizeTotal(double seconds) {
+        Recorder total = new Recorder();
+        recorders.values().forEach(total::addAll);
+        return total.summarize(seconds);
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<Integer, Long> errorStatuses = new TreeMap<>();
+
+        synchronized void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status < 200 || status >= 300) {
+                errors++;
+                errorStatuses.merge(status, 1L, Long::sum);
+            }
+        }
+
+        synchronized void addAll(Recorder other) {
+            synchronized (other) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length, count + other.count));
+                System.arraycopy(other.latencies, 0, latencies, count, other.count);
+                count += other.count;
+                errors += other.errors;
+                other.errorStatuses.forEach((status, n) -> errorStatuses.merge(status, n, Long::sum));
+            }
+        }
+
+        synchronized Map<String, Object> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("errors", errors);
+            result.put("errorStatuses", new LinkedHashMap<>(errorStatuses));
+            result.put("throughputPerSec", round(count / seconds));
+            result.put("meanMs", round(count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1_000_000));
+            result.put("p50Ms", percentile(sorted, 0.50));
+            result.put("p90Ms", percentile(sorted, 0.90));
+            result.put("p95Ms", percentile(sorted, 0.95));
+            result.put("p99Ms", percentile(sorted, 0.99));
+            result.put("maxMs", count == 0 ? 0 : round(sorted[count - 1] / 1_000_000.0));
+            return result;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1_000_000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
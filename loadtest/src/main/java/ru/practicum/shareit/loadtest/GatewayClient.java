@@ -0,0 +1,106 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * HTTP-клиент шлюза: JSON-тело, заголовок X-Sharer-User-Id, замер задержки каждого вызова.
+ */
+public class GatewayClient {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public GatewayClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public record Response(int status, String body, long nanos) {
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public Response get(String path, Long userId) {
+        return send(request(path, userId).GET());
+    }
+
+    public Response post(String path, Long userId, Object body) {
+        return send(request(path, userId).POST(HttpRequest.BodyPublishers.ofString(toJson(body))));
+    }
+
+    public Response patch(String path, Long userId) {
+        return send(request(path, userId).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public JsonNode readTree(Response response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isUp(String healthUrl) {
+        try {
+            HttpResponse<Void> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(healthUrl)).timeout(Duration.ofSeconds(2)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body(), System.nanoTime() - start);
+        } catch (IOException e) {
+            return new Response(-1, e.toString(), System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            // Прогон остановлен: незавершённый вызов не должен попасть в статистику
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Load test stopped");
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Нагрузочный прогон: для каждого режима потоков шлюза поднимает сервер и шлюз, заполняет данные
+ * через API и для каждого уровня concurrency выполняет смесь сценариев в закрытом цикле.
+ * Результаты режимов (пропускная способность и перцентили задержки) пишутся в JSON рядом
+ * по каждому уровню нагрузки.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        Map<Integer, Map<String, Object>> sweep = new TreeMap<>();
+        for (boolean virtualThreads : config.getGatewayModes()) {
+            String mode = LoadTestConfig.modeName(virtualThreads);
+            try (ShareItProcesses processes = new ShareItProcesses(config)) {
+                processes.start(virtualThreads);
+                GatewayClient client = new GatewayClient("http://localhost:" + config.getGatewayPort());
+                Workload workload = new Workload(client, config);
+                workload.seed();
+                for (int concurrency : config.getConcurrency()) {
+                    log.info("Gateway mode {}, {} clients", mode, concurrency);
+                    sweep.computeIfAbsent(concurrency, level -> new LinkedHashMap<>())
+                            .put(mode, run(config, workload, concurrency));
+                }
+            }
+        }
+
+        List<Map<String, Object>> levels = new ArrayList<>();
+        sweep.forEach((concurrency, modes) -> {
+            Map<String, Object> level = new LinkedHashMap<>();
+            level.put("concurrency", concurrency);
+            level.putAll(modes);
+            levels.add(level);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", settings(config));
+        report.put("sweep", levels);
+        logComparison(sweep);
+
+        Files.createDirectories(config.getOutput().toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.getOutput().toFile(), report);
+        log.info("Results saved to {}", config.getOutput().toAbsolutePath());
+    }
+
+    /**
+     * Один уровень нагрузки: прогрев, затем замер. Клиенты - виртуальные потоки, чтобы число
+     * клиентов генератора не ограничивалось его собственным пулом.
+     */
+    private static Map<String, Object> run(LoadTestConfig config, Workload workload, int concurrency)
+            throws InterruptedException {
+        Scenario[] scenarios = config.getMix().keySet().toArray(Scenario[]::new);
+        int[] cumulativeWeights = new int[scenarios.length];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            totalWeight += config.getMix().get(scenarios[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        AtomicReference<EndpointStats> stats = new AtomicReference<>(new EndpointStats());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        int weightSum = totalWeight;
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int pick = ThreadLocalRandom.current().nextInt(weightSum);
+                    int index = 0;
+                    while (cumulativeWeights[index] <= pick) {
+                        index++;
+                    }
+                    try {
+                        workload.execute(scenarios[index], stats.get());
+                    } catch (CancellationException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        log.info("Warming up for {} s", config.getWarmup());
+        TimeUnit.SECONDS.sleep(config.getWarmup());
+        stats.set(new EndpointStats());
+        long start = System.nanoTime();
+        log.info("Measuring for {} s with {} clients", config.getDuration(), concurrency);
+        TimeUnit.SECONDS.sleep(config.getDuration());
+        EndpointStats measured = stats.getAndSet(new EndpointStats());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdownNow();
+        executor.awaitTermination(60, TimeUnit.SECONDS);
+
+        Map<String, Map<String, Object>> endpoints = measured.summarize(seconds);
+        Map<String, Object> total = measured.summarizeTotal(seconds);
+        endpoints.forEach((endpoint, summary) -> log.info("{}: {}", endpoint, summary));
+        log.info("Total: {}", total);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void logComparison(Map<Integer, Map<String, Object>> sweep) {
+        sweep.forEach((concurrency, modes) -> {
+            StringBuilder line = new StringBuilder(String.format("concurrency=%d", concurrency));
+            modes.forEach((mode, result) -> {
+                Map<String, Object> total = (Map<String, Object>) ((Map<String, Object>) result).get("total");
+                line.append(String.format(" | %s: %s req/s, p99 %s ms, errors %s",
+                        mode, total.get("throughputPerSec"), total.get("p99Ms"), total.get("errors")));
+            });
+            log.info("{}", line);
+        });
+    }
+
+    private static Map<String, Object> settings(LoadTestConfig config) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("database", config.isH2() ? "h2" : config.getDbUrl());
+        settings.put("gatewayModes", config.getGatewayModes().stream().map(LoadTestConfig::modeName).toList());
+        settings.put("gatewayMaxConnections", config.getGatewayMaxConnections());
+        settings.put("users", config.getUsers());
+        settings.put("itemsPerOwner", config.getItemsPerOwner());
+        settings.put("concurrency", config.getConcurrency());
+        settings.put("warmupSeconds", config.getWarmup());
+        settings.put("durationSeconds", config.getDuration());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.getMix().forEach((scenario, weight) -> mix.put(scenario.getKey(), weight));
+        settings.put("mix", mix);
+        return settings;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Настройки прогона: значения из loadtest.properties, переопределённые аргументами вида key=value
+ * и системными свойствами -Dloadtest.key=value.
+ */
+@Getter
+public class LoadTestConfig {
+
+    private final Path serverJar;
+    private final Path gatewayJar;
+    private final int serverPort;
+    private final int gatewayPort;
+    /**
+     * true - виртуальные потоки шлюза, false - пул потоков Tomcat; в порядке прогона.
+     */
+    private final List<Boolean> gatewayModes;
+    private final int gatewayMaxConnections;
+    private final int startTimeout;
+    private final String dbUrl;
+    private final String dbUsername;
+    private final String dbPassword;
+    private final int users;
+    private final int itemsPerOwner;
+    private final List<Integer> concurrency;
+    private final int warmup;
+    private final int duration;
+    private final Map<Scenario, Integer> mix;
+    private final Path output;
+
+    private LoadTestConfig(Properties properties) {
+        this.serverJar = Path.of(properties.getProperty("serverJar"));
+        this.gatewayJar = Path.of(properties.getProperty("gatewayJar"));
+        this.serverPort = Integer.parseInt(properties.getProperty("serverPort"));
+        this.gatewayPort = Integer.parseInt(properties.getProperty("gatewayPort"));
+        this.gatewayModes = parseGatewayModes(properties.getProperty("gatewayModes"));
+        this.gatewayMaxConnections = Integer.parseInt(properties.getProperty("gatewayMaxConnections"));
+        this.startTimeout = Integer.parseInt(properties.getProperty("startTimeout"));
+        this.dbUrl = properties.getProperty("dbUrl", "");
+        this.dbUsername = properties.getProperty("dbUsername");
+        this.dbPassword = properties.getProperty("dbPassword");
+        this.users = Integer.parseInt(properties.getProperty("users"));
+        this.itemsPerOwner = Integer.parseInt(properties.getProperty("itemsPerOwner"));
+        this.concurrency = Arrays.stream(properties.getProperty("concurrency").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        this.warmup = Integer.parseInt(properties.getProperty("warmup"));
+        this.duration = Integer.parseInt(properties.getProperty("duration"));
+        this.mix = parseMix(properties.getProperty("mix"));
+        this.output = Path.of(properties.getProperty("output"));
+        if (users < 2) {
+            throw new IllegalArgumentException("users must be at least 2");
+        }
+    }
+
+    public static LoadTestConfig load(String[] args) {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            String override = System.getProperty("loadtest." + name);
+            if (override != null) {
+                properties.setProperty(name, override);
+            }
+        }
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0 || !properties.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            properties.setProperty(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(properties);
+    }
+
+    public boolean isH2() {
+        return dbUrl.isBlank();
+    }
+
+    public static String modeName(boolean virtualThreads) {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private static List<Boolean> parseGatewayModes(String value) {
+        List<Boolean> modes = new ArrayList<>();
+        for (String mode : value.split(",")) {
+            switch (mode.trim()) {
+                case "platform" -> modes.add(false);
+                case "virtual" -> modes.add(true);
+                default -> throw new IllegalArgumentException("Unknown gateway mode: " + mode);
+            }
+        }
+        return modes;
+    }
+
+    /**
+     * Формат: search:35,itemById:15,... Сценарии, не указанные в смеси, не выполняются.
+     */
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.byKey(pair[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix is empty");
+        }
+        return mix;
+    }
+}
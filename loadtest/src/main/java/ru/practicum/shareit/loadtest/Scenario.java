@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Сценарии нагрузки. Каждый выполняет один или несколько HTTP-вызовов шлюза и записывает их
+ * задержки под именем эндпоинта.
+ */
+public enum Scenario {
+    SEARCH("search"),
+    ITEM_BY_ID("itemById"),
+    OWNER_ITEMS("ownerItems"),
+    OWNER_BOOKINGS("ownerBookings"),
+    BOOKING("booking"),
+    COMMENT("comment");
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Scenario byKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + key));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запускает сервер и шлюз отдельными JVM из собранных jar и останавливает их по завершении прогона.
+ * Вывод процессов пишется в target/loadtest/server.log и gateway.log.
+ */
+@Slf4j
+public class ShareItProcesses implements AutoCloseable {
+
+    private static final Path LOG_DIR = Path.of("target", "loadtest");
+
+    private final LoadTestConfig config;
+    private final GatewayClient healthClient = new GatewayClient("");
+    private final List<Process> processes = new ArrayList<>();
+
+    public ShareItProcesses(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void start(boolean gatewayVirtualThreads) throws IOException, InterruptedException {
+        Files.createDirectories(LOG_DIR);
+        List<String> serverArgs = new ArrayList<>(List.of("--server.port=" + config.getServerPort()));
+        if (config.isH2()) {
+            serverArgs.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:shareit-load;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driverClassName=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.sql.init.platform=h2"));
+        } else {
+            serverArgs.addAll(List.of(
+                    "--spring.datasource.url=" + config.getDbUrl(),
+                    "--spring.datasource.username=" + config.getDbUsername(),
+                    "--spring.datasource.password=" + config.getDbPassword()));
+        }
+        launch("server", config.getServerJar(), serverArgs);
+        awaitHealth("server", config.getServerPort());
+
+        launch("gateway", config.getGatewayJar(), List.of(
+                "--server.port=" + config.getGatewayPort(),
+                "--shareit-server.url=http://localhost:" + config.getServerPort(),
+                "--spring.threads.virtual.enabled=" + gatewayVirtualThreads,
+                "--shareit-server.http.max-total=" + config.getGatewayMaxConnections(),
+                "--shareit-server.http.max-per-route=" + config.getGatewayMaxConnections()));
+        awaitHealth("gateway", config.getGatewayPort());
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes.reversed()) {
+            process.destroy();
+            try {
+                if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void launch(String name, Path jar, List<String> args) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath() + " not found, build the project with mvn package first");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        Path logFile = LOG_DIR.resolve(name + ".log");
+        log.info("Starting {}: {}", name, String.join(" ", command));
+        processes.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start());
+    }
+
+    private void awaitHealth(String name, int port) throws InterruptedException {
+        String healthUrl = "http://localhost:" + port + "/actuator/health";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getStartTimeout());
+        Process process = processes.getLast();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                        + ", see " + LOG_DIR.resolve(name + ".log"));
+            }
+            if (healthClient.isUp(healthUrl)) {
+                log.info("{} is up on port {}", name, port);
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start within " + config.getStartTimeout() + " s");
+    }
+}
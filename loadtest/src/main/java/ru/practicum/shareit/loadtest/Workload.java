@@ -0,0 +1,112 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Начальные данные и сценарии нагрузки поверх API шлюза.
+ * Каждый пользователь владеет itemsPerOwner вещами; у каждой вещи есть завершённое подтверждённое
+ * бронирование соседа, поэтому сосед может оставлять отзывы. Новые бронирования создаются
+ * в непересекающихся слотах в будущем и сразу подтверждаются владельцем.
+ */
+@Slf4j
+public class Workload {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final GatewayClient client;
+    private final LoadTestConfig config;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<SeededItem> items = new ArrayList<>();
+    private final AtomicLong bookingSlot = new AtomicLong();
+    private final LocalDateTime slotBase = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+
+    private record SeededItem(long itemId, long ownerId, long bookerId) {
+    }
+
+    public Workload(GatewayClient client, LoadTestConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    public void seed() throws InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < config.getUsers(); i++) {
+            String name = "load-" + runId + "-" + i;
+            userIds.add(created(client.post("/users", null, Map.of("name", name, "email", name + "@mail.ru")), "user"));
+        }
+        for (int owner = 0; owner < userIds.size(); owner++) {
+            long ownerId = userIds.get(owner);
+            long bookerId = userIds.get((owner + 1) % userIds.size());
+            for (int i = 0; i < config.getItemsPerOwner(); i++) {
+                int number = items.size() + 1;
+                long itemId = created(client.post("/items", ownerId, Map.of(
+                        "name", "Drill " + number,
+                        "description", "Cordless drill " + number,
+                        "available", true)), "item");
+                items.add(new SeededItem(itemId, ownerId, bookerId));
+            }
+        }
+        LocalDateTime lastEnd = LocalDateTime.now();
+        for (SeededItem item : items) {
+            LocalDateTime start = LocalDateTime.now().plusSeconds(2);
+            lastEnd = start.plusSeconds(1);
+            long bookingId = created(client.post("/bookings", item.bookerId(), booking(item.itemId(), start, lastEnd)),
+                    "booking");
+            created(client.patch("/bookings/" + bookingId + "?approved=true", item.ownerId()), "approval");
+        }
+        long waitMillis = ChronoUnit.MILLIS.between(LocalDateTime.now(), lastEnd) + 1000;
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+        log.info("Seeded {} users and {} items", userIds.size(), items.size());
+    }
+
+    public void execute(Scenario scenario, EndpointStats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededItem item = items.get(random.nextInt(items.size()));
+        switch (scenario) {
+            case SEARCH -> stats.record("GET /items/search",
+                    client.get("/items/search?text=drill+" + random.nextInt(1, 10) + "&from=0&size=10",
+                            item.bookerId()));
+            case ITEM_BY_ID -> stats.record("GET /items/{id}",
+                    client.get("/items/" + item.itemId(), random.nextBoolean() ? item.ownerId() : item.bookerId()));
+            case OWNER_ITEMS -> stats.record("GET /items", client.get("/items", item.ownerId()));
+            case OWNER_BOOKINGS -> stats.record("GET /bookings/owner",
+                    client.get("/bookings/owner?state=ALL", item.ownerId()));
+            case BOOKING -> {
+                LocalDateTime start = slotBase.plusHours(2 * bookingSlot.getAndIncrement());
+                GatewayClient.Response response = client.post("/bookings", item.bookerId(),
+                        booking(item.itemId(), start, start.plusHours(1)));
+                stats.record("POST /bookings", response);
+                if (response.isSuccess()) {
+                    long bookingId = client.readTree(response).get("id").asLong();
+                    stats.record("PATCH /bookings/{id}",
+                            client.patch("/bookings/" + bookingId + "?approved=true", item.ownerId()));
+                }
+            }
+            case COMMENT -> stats.record("POST /items/{id}/comment",
+                    client.post("/items/" + item.itemId() + "/comment", item.bookerId(),
+                            Map.of("text", "Works fine")));
+        }
+    }
+
+    private static Map<String, Object> booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return Map.of("itemId", itemId, "start", DATE_TIME.format(start), "end", DATE_TIME.format(end));
+    }
+
+    private long created(GatewayClient.Response response, String what) {
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Failed to seed " + what + ": " + response.status() + " " + response.body());
+        }
+        return client.readTree(response).path("id").asLong();
+    }
+}
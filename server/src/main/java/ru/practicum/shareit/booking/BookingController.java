@@ -43,16 +43,22 @@ public class BookingController {
     @GetMapping
     public List<BookingViewDTO> findAllByUserId(
             @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
-            @RequestParam(required = false) BookingStatus status
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
     ) {
-        return bookingService.findAllByUserId(userId, status);
+        return bookingService.findAllByUserId(userId, state, afterId, from, size);
     }
 
     @GetMapping("/owner")
     public List<BookingViewDTO> findAllByOwnerId(
             @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
-            @RequestParam(required = false) BookingStatus status
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
     ) {
-        return bookingService.findAllByOwnerId(userId, status);
+        return bookingService.findAllByOwnerId(userId, state, afterId, from, size);
     }
 }
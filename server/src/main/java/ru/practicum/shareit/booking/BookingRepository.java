@@ -1,77 +1,89 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.dto.BookingViewDTO;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
 
-    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
-            "b.bookingId, " +
-            "b.item, " +
-            "b.user, " +
-            "b.startDate, " +
-            "b.endDate, " +
-            "b.bookingStatus) " +
-            "FROM Booking b WHERE b.bookingId = :bookingId")
-    Optional<BookingViewDTO> findOneByBookingId(Long bookingId);
+    @Override
+    @EntityGraph(Booking.VIEW_GRAPH)
+    Optional<Booking> findById(Integer bookingId);
 
+    @EntityGraph(Booking.VIEW_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Booking> findOneByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Подтверждённые бронирования вещи для временной шкалы lastBooking/nextBooking: из вещи берётся
+     * только id, из бронирующего id и имя, поэтому выборка идёт плоской проекцией без загрузки сущностей.
+     */
     @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
             "b.bookingId, " +
-            "b.item, " +
-            "b.user, " +
+            "b.item.itemId, " +
+            "b.user.id, " +
+            "b.user.name, " +
             "b.startDate, " +
             "b.endDate, " +
             "b.bookingStatus) " +
-            "FROM Booking b WHERE b.item.itemId = :itemId")
-    List<BookingViewDTO> findAllByItem_ItemId(Long itemId);
+            "FROM Booking b WHERE b.item.itemId = :itemId " +
+            "AND b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.APPROVED")
+    List<BookingViewDTO> findAllApprovedByItemId(@Param("itemId") Long itemId);
 
     void deleteByUserId(long userId);
 
-    List<BookingViewDTO> findAllByUserIdAndBookingStatusOrderByStartDateAsc(Long userId, BookingStatus bookingStatus);
+    @Query("SELECT DISTINCT b.item.itemId FROM Booking b WHERE b.user.id = :userId")
+    List<Long> findAllItemIdsByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
-            "b.bookingId," +
-            " b.item," +
-            " b.user," +
-            " b.startDate," +
-            " b.endDate," +
-            " b.bookingStatus) " +
-            "FROM Booking b WHERE b.user.id = :userId ORDER BY b.startDate ASC")
-    List<BookingViewDTO> findAllByUserIdOrderByStartDateAsc(@Param("userId") Long userId);
+    /**
+     * Дата начала бронирования-курсора, только если оно входит в список бронирующего.
+     */
+    @Query("SELECT b.startDate FROM Booking b WHERE b.bookingId = :bookingId AND b.user.id = :bookerId")
+    Optional<LocalDateTime> findStartDateByBookingIdAndBookerId(@Param("bookingId") Long bookingId,
+                                                                @Param("bookerId") Long bookerId);
 
-    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
-            "b.bookingId, " +
-            "b.item, " +
-            "b.user, " +
-            "b.startDate, " +
-            "b.endDate, " +
-            "b.bookingStatus) " +
-            "FROM Booking b WHERE b.item.user.id = :userId")
-    List<BookingViewDTO> findAllByOwnerId(Long userId);
+    /**
+     * Дата начала бронирования-курсора, только если оно относится к вещи владельца.
+     */
+    @Query("SELECT b.startDate FROM Booking b WHERE b.bookingId = :bookingId AND b.item.user.id = :ownerId")
+    Optional<LocalDateTime> findStartDateByBookingIdAndOwnerId(@Param("bookingId") Long bookingId,
+                                                               @Param("ownerId") Long ownerId);
 
-    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
-            "b.bookingId, " +
-            "b.item, " +
-            "b.user, " +
-            "b.startDate, " +
-            "b.endDate, " +
-            "b.bookingStatus) " +
-            "FROM Booking b WHERE (b.item.user.id = :ownerId OR b.bookingStatus = :bookingStatus)")
-    List<BookingViewDTO> findAllByOwnerIdAndBookingStatus(@Param("ownerId") Long ownerId, @Param("bookingStatus") BookingStatus bookingStatus);
+    /**
+     * Право оставить отзыв: есть ли у пользователя завершившееся к now бронирование вещи. EXISTS
+     * останавливается на первой подходящей строке индекса idx_bookings_user_item_end.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.user_id = :userId AND b.item_id = :itemId AND b.end_date <= :now)",
+            nativeQuery = true)
+    boolean existsCompletedByUserIdAndItemId(
+            @Param("userId") Long userId,
+            @Param("itemId") Long itemId,
+            @Param("now") LocalDateTime now
+    );
 
-    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDTO(" +
-            " b.bookingId," +
-            " b.item," +
-            " b.user," +
-            " b.startDate," +
-            " b.endDate," +
-            " b.bookingStatus" +
-            ")" +
-            "FROM Booking b WHERE b.item.itemId = :itemId AND b.user.id = :userId")
-    List<BookingViewDTO> findAllByUserIdAndItemItemId(@Param("userId") Long userId, @Param("itemId") Long itemId);
-}
\ No newline at end of file
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.itemId = :itemId AND b.user.id = :userId")
+    boolean existsByUserIdAndItemId(@Param("userId") Long userId, @Param("itemId") Long itemId);
+
+    /**
+     * Есть ли у вещи подтверждённое бронирование, пересекающееся с интервалом [start, end).
+     * Бронирование excludeBookingId не учитывается (для повторной проверки при подтверждении).
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.itemId = :itemId " +
+            "AND b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.startDate < :end AND b.endDate > :start " +
+            "AND (:excludeBookingId IS NULL OR b.bookingId <> :excludeBookingId)")
+    boolean existsApprovedOverlap(
+            @Param("itemId") Long itemId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("excludeBookingId") Long excludeBookingId
+    );
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Списки бронирований бронирующего и владельца с фильтром по состоянию. Условие состояния,
+ * сортировка по (startDate, bookingId) и ограничение страницы выполняются в БД одним запросом.
+ * Если передан afterId, страница начинается после бронирования (afterStartDate, afterId)
+ * (keyset-пагинация), а смещение pageable не учитывается.
+ */
+public interface BookingRepositoryCustom {
+
+    List<Booking> findAllByBookerIdAndState(
+            Long bookerId,
+            BookingState state,
+            LocalDateTime now,
+            LocalDateTime afterStartDate,
+            Long afterId,
+            Pageable pageable
+    );
+
+    List<Booking> findAllByOwnerIdAndState(
+            Long ownerId,
+            BookingState state,
+            LocalDateTime now,
+            LocalDateTime afterStartDate,
+            Long afterId,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllByBookerIdAndState(
+            Long bookerId,
+            BookingState state,
+            LocalDateTime now,
+            LocalDateTime afterStartDate,
+            Long afterId,
+            Pageable pageable
+    ) {
+        return find("b.user.id = :userId", bookerId, state, now, afterStartDate, afterId, pageable);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndState(
+            Long ownerId,
+            BookingState state,
+            LocalDateTime now,
+            LocalDateTime afterStartDate,
+            Long afterId,
+            Pageable pageable
+    ) {
+        return find("b.item.user.id = :userId", ownerId, state, now, afterStartDate, afterId, pageable);
+    }
+
+    private List<Booking> find(
+            String userCondition,
+            Long userId,
+            BookingState state,
+            LocalDateTime now,
+            LocalDateTime afterStartDate,
+            Long afterId,
+            Pageable pageable
+    ) {
+        String stateCondition = stateCondition(state);
+        StringBuilder jpql = new StringBuilder("SELECT b FROM Booking b WHERE ").append(userCondition);
+        if (stateCondition != null) {
+            jpql.append(" AND ").append(stateCondition);
+        }
+        if (afterId != null) {
+            jpql.append(" AND (b.startDate > :afterStartDate " +
+                    "OR (b.startDate = :afterStartDate AND b.bookingId > :afterId))");
+        }
+        jpql.append(" ORDER BY b.startDate ASC, b.bookingId ASC");
+
+        TypedQuery<Booking> query = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Booking.VIEW_GRAPH))
+                .setParameter("userId", userId)
+                .setFirstResult(afterId == null ? (int) pageable.getOffset() : 0)
+                .setMaxResults(pageable.getPageSize());
+        if (stateCondition != null && stateCondition.contains(":now")) {
+            query.setParameter("now", now);
+        }
+        if (afterId != null) {
+            query.setParameter("afterStartDate", afterStartDate);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Условия состояний используют только start_date, end_date и booking_status, поэтому
+     * выполняются по индексам (user_id, ...) и (item_id, ...) из schema.sql.
+     */
+    private static String stateCondition(BookingState state) {
+        return switch (state) {
+            case ALL -> null;
+            case CURRENT -> "b.startDate <= :now AND b.endDate > :now";
+            case FUTURE -> "b.startDate > :now";
+            case PAST -> "b.endDate <= :now";
+            case WAITING -> "b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.WAITING";
+            case REJECTED -> "b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.REJECTED";
+        };
+    }
+}
@@ -15,7 +15,15 @@ public interface BookingService {
 
     public Booking bookingConfirmationOrRejection(long bookingId, Boolean approved, long userId);
 
-    public List<BookingViewDTO> findAllByUserId(Long userId, BookingStatus status);
-
-    public List<BookingViewDTO> findAllByOwnerId(Long ownerId, BookingStatus status);
+    /**
+     * Возвращает страницу бронирований пользователя в состоянии state, упорядоченных по (startDate, bookingId).
+     * Если передан afterId, используется keyset-пагинация: возвращаются бронирования, следующие
+     * за бронированием afterId, а from игнорируется.
+     */
+    public List<BookingViewDTO> findAllByUserId(Long userId, BookingState state, Long afterId, int from, int size);
+
+    /**
+     * Возвращает страницу бронирований вещей владельца; состояние и пагинация как в findAllByUserId.
+     */
+    public List<BookingViewDTO> findAllByOwnerId(Long ownerId, BookingState state, Long afterId, int from, int size);
 }
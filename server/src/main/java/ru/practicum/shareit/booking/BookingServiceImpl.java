@@ -1,40 +1,62 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingSave;
 import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.booking.mapper.BookingMapperDto;
 import ru.practicum.shareit.exception.AccessRightException;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.NoAccess;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingPointerRepository;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     private BookingRepository bookingRepository;
     private UserRepository userRepository;
     private ItemRepository itemRepository;
+    private ItemBookingLocks itemBookingLocks;
+    private ItemBookingTimelines itemBookingTimelines;
+    private ItemBookingPointerRepository itemBookingPointerRepository;
+    private TransactionTemplate transactionTemplate;
 
     @Override
     public void deleteByUserId(long id) {
         userRepository.findById(id);
-        bookingRepository.deleteByUserId(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> itemIds = bookingRepository.findAllItemIdsByUserId(id);
+            bookingRepository.deleteByUserId(id);
+            bookingRepository.flush();
+            itemBookingPointerRepository.refresh(itemIds, LocalDateTime.now());
+        });
+        itemBookingTimelines.clear();
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingViewDTO findOne(Long bookingId, Long userId) {
         userRepository.findById(userId);
-        Optional<BookingViewDTO> booking = bookingRepository.findOneByBookingId(bookingId);
+        Optional<BookingViewDTO> booking = bookingRepository.findOneByBookingId(bookingId)
+                .map(BookingMapperDto::toViewDto);
         if (booking.isPresent()) {
             if (!(booking.get().getItem().getUser().getId().equals(userId) || booking.get().getUser().getId().equals(userId))) {
                 throw new AccessRightException("Access Denied");
@@ -47,7 +69,8 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking save(BookingSave bookingSave, long userId) {
-        Optional<Item> item = itemRepository.findById((int) bookingSave.getItemId());
+        // Вещь отдаётся в ответе со всеми связями, поэтому выбирается вместе с ними одним запросом
+        Optional<Item> item = itemRepository.findWithOwnerAndRequestByItemId(bookingSave.getItemId());
         if (item.isEmpty()) {
             throw new NotFoundException("Item with id " + bookingSave.getItemId() + " not found");
         }
@@ -61,9 +84,16 @@ public class BookingServiceImpl implements BookingService {
                 .endDate(bookingSave.getEnd())
                 .bookingStatus(BookingStatus.WAITING)
                 .build();
+        // Новое бронирование ждёт подтверждения и не занимает интервал, поэтому блокировка вещи
+        // не нужна: проверка лишь заранее отклоняет заявки на уже подтверждённое время
+        checkOverlap(booking);
         return bookingRepository.save(booking);
     }
 
+    /**
+     * Смена статуса и пересчёт указателей last/next вещи выполняются в одной транзакции
+     * под блокировкой вещи.
+     */
     @Override
     public Booking bookingConfirmationOrRejection(long bookingId, Boolean approved, long userId) {
         userRepository.findById(userId);
@@ -74,39 +104,114 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.get().getItem().getUser().getId().equals(userId)) {
             throw new AccessRightException("Access Denied");
         }
-        if (approved) {
-            booking.get().setBookingStatus(BookingStatus.APPROVED);
-        } else {
-            booking.get().setBookingStatus(BookingStatus.REJECTED);
+        Lock lock = itemBookingLocks.forItem(booking.get().getItem().getItemId());
+        lock.lock();
+        try {
+            if (approved) {
+                checkOverlap(booking.get());
+            }
+            booking.get().setBookingStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            transactionTemplate.executeWithoutResult(status -> {
+                Booking saved = bookingRepository.saveAndFlush(booking.get());
+                itemBookingPointerRepository.refresh(List.of(saved.getItem().getItemId()), LocalDateTime.now());
+            });
+            // Без открытой сессии saveAndFlush возвращает копию с неинициализированными связями,
+            // поэтому шкала обновляется и ответ строится по загруженному вместе с графом бронированию
+            if (approved) {
+                itemBookingTimelines.approved(booking.get());
+            } else {
+                itemBookingTimelines.rejected(booking.get());
+            }
+            return booking.get();
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw overlapException(booking.get());
+            }
+            throw e;
+        } finally {
+            lock.unlock();
         }
-        return bookingRepository.save(booking.get());
     }
 
     @Override
-    public List<BookingViewDTO> findAllByUserId(Long userId, BookingStatus status) {
+    public List<BookingViewDTO> findAllByUserId(Long userId, BookingState state, Long afterId, int from, int size) {
         userRepository.findById(userId);
-        if (status != null) {
-            return bookingRepository.findAllByUserIdAndBookingStatusOrderByStartDateAsc(userId, status);
-        } else {
-            return bookingRepository.findAllByUserIdOrderByStartDateAsc(userId);
-        }
+        LocalDateTime afterStartDate = afterId == null ? null
+                : toCursor(afterId, bookingRepository.findStartDateByBookingIdAndBookerId(afterId, userId));
+        return toViewDtos(bookingRepository.findAllByBookerIdAndState(
+                userId,
+                state == null ? BookingState.ALL : state,
+                LocalDateTime.now(),
+                afterStartDate,
+                afterId,
+                OffsetPageRequest.of(from, size)
+        ));
     }
 
     @Override
-    public List<BookingViewDTO> findAllByOwnerId(Long ownerId, BookingStatus status) {
+    public List<BookingViewDTO> findAllByOwnerId(Long ownerId, BookingState state, Long afterId, int from, int size) {
         Optional<User> user = userRepository.findById(ownerId);
         if (user.isEmpty()) {
             throw new NotFoundException("User with id " + ownerId + " not found");
         }
-        List<BookingViewDTO> bookingOwner = new ArrayList<>();
-        if (status != null) {
-            bookingOwner = bookingRepository.findAllByOwnerIdAndBookingStatus(ownerId, status);
-        } else {
-            bookingOwner = bookingRepository.findAllByOwnerId(ownerId);
+        LocalDateTime afterStartDate = afterId == null ? null
+                : toCursor(afterId, bookingRepository.findStartDateByBookingIdAndOwnerId(afterId, ownerId));
+        return toViewDtos(bookingRepository.findAllByOwnerIdAndState(
+                ownerId,
+                state == null ? BookingState.ALL : state,
+                LocalDateTime.now(),
+                afterStartDate,
+                afterId,
+                OffsetPageRequest.of(from, size)
+        ));
+    }
+
+    /**
+     * Курсор ищется только среди бронирований самого списка, поэтому чужое и несуществующее
+     * бронирование неразличимы для вызывающего.
+     */
+    private static LocalDateTime toCursor(Long afterId, Optional<LocalDateTime> startDate) {
+        return startDate.orElseThrow(() -> new NotFoundException("Booking with id " + afterId + " not found"));
+    }
+
+    private static List<BookingViewDTO> toViewDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapperDto::toViewDto)
+                .toList();
+    }
+
+    /**
+     * Проверяет, что интервал бронирования не пересекается с подтверждёнными бронированиями вещи.
+     * При подтверждении выполняется под блокировкой вещи; в PostgreSQL то же правило дублирует ограничение
+     * ex_bookings_item_period на случай нескольких экземпляров сервера.
+     */
+    private void checkOverlap(Booking booking) {
+        if (bookingRepository.existsApprovedOverlap(
+                booking.getItem().getItemId(),
+                booking.getStartDate(),
+                booking.getEndDate(),
+                booking.getBookingId()
+        )) {
+            throw overlapException(booking);
         }
-        if (bookingOwner.isEmpty()) {
-            throw new NotFoundException("Booking with ownerId " + ownerId + " not found");
+    }
+
+    /**
+     * Нарушение ex_bookings_item_period определяется по SQLException драйвера: код 23P01
+     * (exclusion_violation) и имя ограничения в сообщении PostgreSQL.
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return String.valueOf(sqlException.getMessage()).contains("\"" + OVERLAP_CONSTRAINT + "\"");
+            }
         }
-        return bookingOwner;
+        return false;
+    }
+
+    private static BookingOverlapException overlapException(Booking booking) {
+        return new BookingOverlapException("Item with id " + booking.getItem().getItemId()
+                + " is already booked from " + booking.getStartDate() + " to " + booking.getEndDate());
     }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Состояние бронирований для фильтрации списков бронирующего и владельца.
+ * В отличие от BookingStatus учитывает не только статус, но и положение интервала бронирования
+ * относительно текущего момента.
+ */
+public enum BookingState {
+    /**
+     * Все бронирования без применения фильтров
+     */
+    ALL,
+
+    /**
+     * Текущие бронирования (начались, но ещё не закончились)
+     */
+    CURRENT,
+
+    /**
+     * Будущие бронирования (дата начала ещё не наступила)
+     */
+    FUTURE,
+
+    /**
+     * Завершённые бронирования (дата окончания уже прошла)
+     */
+    PAST,
+
+    /**
+     * Отклонённые бронирования (статус REJECTED)
+     */
+    REJECTED,
+
+    /**
+     * Бронирования, ожидающие подтверждения (статус WAITING)
+     */
+    WAITING
+}
@@ -3,7 +3,7 @@ package ru.practicum.shareit.booking;
 import java.util.Optional;
 
 /**
- * Статусы бронирований для фильтрации
+ * Статусы бронирований; фильтрация по времени задаётся BookingState
  */
 public enum BookingStatus {
     /**
@@ -11,16 +11,6 @@ public enum BookingStatus {
      */
     APPROVED,
 
-    /**
-     * Завершенные бронирования
-     */
-    PAST,
-
-    /**
-     * Будущие бронирования
-     */
-    FUTURE,
-
     /**
      * Бронирования, ожидающие подтверждения
      */
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по id вещи: проверка пересечения и подтверждение бронирований одной вещи
+ * выполняются последовательно, подтверждения разных вещей не ждут друг друга.
+ */
+@Component
+public class ItemBookingLocks {
+
+    private static final int STRIPES = 256;
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public ItemBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forItem(long itemId) {
+        return locks[Math.floorMod(Long.hashCode(itemId), STRIPES)];
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Подтверждённые бронирования одной вещи, упорядоченные по дате начала (при равном начале по id).
+ * Последнее и следующее бронирование находятся поиском по ключу за O(log n) с теми же правилами,
+ * что и в ItemBookingPointerRepository: последнее - самое позднее начавшееся до момента now,
+ * следующее - самое раннее начинающееся после него, при равном начале выигрывает меньший id.
+ */
+public class ItemBookingTimeline {
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::start).thenComparingLong(Key::bookingId);
+
+    private final NavigableMap<Key, BookingViewDTO> bookings = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<Long, Key> keysByBookingId = new ConcurrentHashMap<>();
+
+    public ItemBookingTimeline(Collection<BookingViewDTO> approvedBookings) {
+        approvedBookings.forEach(this::put);
+    }
+
+    public void put(BookingViewDTO booking) {
+        remove(booking.getBookingId());
+        Key key = new Key(booking.getStartDate(), booking.getBookingId());
+        keysByBookingId.put(booking.getBookingId(), key);
+        bookings.put(key, booking);
+    }
+
+    public void remove(long bookingId) {
+        Key key = keysByBookingId.remove(bookingId);
+        if (key != null) {
+            bookings.remove(key);
+        }
+    }
+
+    public BookingViewDTO last(LocalDateTime now) {
+        Map.Entry<Key, BookingViewDTO> latest = bookings.lowerEntry(new Key(now, Long.MIN_VALUE));
+        if (latest == null) {
+            return null;
+        }
+        Map.Entry<Key, BookingViewDTO> first = bookings.ceilingEntry(new Key(latest.getKey().start(), Long.MIN_VALUE));
+        return first == null ? latest.getValue() : first.getValue();
+    }
+
+    public BookingViewDTO next(LocalDateTime now) {
+        Map.Entry<Key, BookingViewDTO> earliest = bookings.higherEntry(new Key(now, Long.MAX_VALUE));
+        return earliest == null ? null : earliest.getValue();
+    }
+
+    private record Key(LocalDateTime start, long bookingId) {
+    }
+}
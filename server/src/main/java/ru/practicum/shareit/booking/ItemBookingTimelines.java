@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Кэш временных шкал подтверждённых бронирований по id вещи. При промахе шкала строится одним запросом;
+ * подтверждение и отклонение бронирования меняют закэшированную шкалу на месте, создание бронирования
+ * её не затрагивает (новое бронирование ждёт подтверждения). Размер и время жизни записей задаются
+ * spring.cache.caffeine.spec.
+ */
+@Component
+public class ItemBookingTimelines {
+
+    public static final String CACHE_NAME = "bookingTimelines";
+
+    private final Cache cache;
+    private final BookingRepository bookingRepository;
+
+    public ItemBookingTimelines(CacheManager cacheManager, BookingRepository bookingRepository) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+        this.bookingRepository = bookingRepository;
+    }
+
+    public ItemBookingTimeline get(long itemId) {
+        return cache.get(itemId, () -> new ItemBookingTimeline(bookingRepository.findAllApprovedByItemId(itemId)));
+    }
+
+    /**
+     * Вызывается после записи подтверждения в БД.
+     */
+    public void approved(Booking booking) {
+        update(booking.getItem().getItemId(), timeline -> timeline.put(new BookingViewDTO(
+                booking.getBookingId(),
+                booking.getItem().getItemId(),
+                booking.getUser().getId(),
+                booking.getUser().getName(),
+                booking.getStartDate(),
+                booking.getEndDate(),
+                booking.getBookingStatus()
+        )));
+    }
+
+    /**
+     * Вызывается после записи отклонения в БД.
+     */
+    public void rejected(Booking booking) {
+        update(booking.getItem().getItemId(), timeline -> timeline.remove(booking.getBookingId()));
+    }
+
+    public void evict(long itemId) {
+        cache.evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(itemId);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Вне транзакции изменение уже записано в БД и применяется к шкале сразу. Шкала берётся через get:
+     * если она в этот момент строится, изменение применяется после построения, а не теряется.
+     * Внутри транзакции запись может откатиться, поэтому шкала удаляется и будет построена заново.
+     */
+    private void update(long itemId, Consumer<ItemBookingTimeline> change) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            evict(itemId);
+            return;
+        }
+        change.accept(get(itemId));
+    }
+}
@@ -33,4 +33,27 @@ public class BookingViewDTO {
 
     @JsonProperty("status")
     private BookingStatus bookingStatus;
+
+    /**
+     * Плоская проекция: из вещи известен только id, из бронирующего id и имя.
+     */
+    public BookingViewDTO(
+            Long bookingId,
+            Long itemId,
+            Long bookerId,
+            String bookerName,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            BookingStatus bookingStatus
+    ) {
+        this.bookingId = bookingId;
+        this.item = new Item();
+        this.item.setItemId(itemId);
+        this.user = new User();
+        this.user.setId(bookerId);
+        this.user.setName(bookerName);
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.bookingStatus = bookingStatus;
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.mapper;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+
+public class BookingMapperDto {
+    public static BookingViewDTO toViewDto(Booking booking) {
+        return BookingViewDTO.builder()
+                .bookingId(booking.getBookingId())
+                .item(booking.getItem())
+                .user(booking.getUser())
+                .startDate(booking.getStartDate())
+                .endDate(booking.getEndDate())
+                .bookingStatus(booking.getBookingStatus())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Сериализация ленивых связей сущностей, которые контроллеры отдают напрямую (Item, ItemRequest, Booking).
+ * Служебные поля прокси Hibernate в JSON не попадают; непроинициализированная связь догружается,
+ * поэтому форма ответа не зависит от того, была ли связь выбрана запросом. Сервисы записи выбирают
+ * отдаваемый граф с join внутри транзакции, так что на их ответах догрузка не срабатывает.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module hibernateModule() {
+        return new Hibernate6Module()
+                .enable(Hibernate6Module.Feature.FORCE_LAZY_LOADING);
+    }
+}
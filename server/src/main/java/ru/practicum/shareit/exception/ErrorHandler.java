@@ -49,4 +49,10 @@ public class ErrorHandler {
     public ExceptionResponse handlerException(NotCompletedBooking e) {
         return new ExceptionResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ExceptionResponse handlerException(BookingOverlapException e) {
+        return new ExceptionResponse(e.getMessage());
+    }
 }
@@ -2,12 +2,24 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.dto.CommentView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT new ru.practicum.shareit.item.dto.CommentView(c.id, c.user.name, c.text, c.item.itemId, c.created)" +
             " FROM Comment c WHERE c.item.itemId = :itemId")
     List<CommentView> findAllByItemId(Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentView(c.id, c.user.name, c.text, c.item.itemId, c.created)" +
+            " FROM Comment c WHERE c.item.itemId IN :itemIds")
+    List<CommentView> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Вещи, к которым пользователь оставлял комментарии: их закэшированные представления содержат его имя.
+     */
+    @Query("SELECT DISTINCT c.item.itemId FROM Comment c WHERE c.user.id = :userId")
+    List<Long> findAllItemIdsByUserId(@Param("userId") Long userId);
 }
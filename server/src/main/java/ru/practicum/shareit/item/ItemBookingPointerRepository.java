@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Указатели items.last_booking_id и items.next_booking_id на последнее и следующее подтверждённое
+ * бронирование вещи (правила выбора те же, что у ItemBookingTimeline). Пересчёт выполняется одним
+ * UPDATE в БД по индексу (item_id, booking_status, start_date). Запросы идут через JDBC, а не через
+ * Hibernate: сущность Item эти колонки не отображает, и native-update не должен сбрасывать кэш
+ * второго уровня.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemBookingPointerRepository {
+
+    /**
+     * Id последнего подтверждённого бронирования вещи i на момент :now; общий для пересчёта указателей
+     * и для запроса вещей владельца, у которых указатели устарели.
+     */
+    public static final String LAST_BOOKING_ID = "(SELECT b.booking_id FROM bookings b " +
+            "   WHERE b.item_id = i.item_id AND b.booking_status = 'APPROVED' AND b.start_date < :now " +
+            "   ORDER BY b.start_date DESC, b.booking_id FETCH FIRST 1 ROWS ONLY)";
+
+    /**
+     * Id следующего подтверждённого бронирования вещи i на момент :now.
+     */
+    public static final String NEXT_BOOKING_ID = "(SELECT b.booking_id FROM bookings b " +
+            "   WHERE b.item_id = i.item_id AND b.booking_status = 'APPROVED' AND b.start_date > :now " +
+            "   ORDER BY b.start_date, b.booking_id FETCH FIRST 1 ROWS ONLY)";
+
+    private static final String REFRESH = "UPDATE items i SET " +
+            "last_booking_id = " + LAST_BOOKING_ID + ", " +
+            "next_booking_id = " + NEXT_BOOKING_ID + ", " +
+            "next_booking_start = (SELECT MIN(b.start_date) FROM bookings b " +
+            "   WHERE b.item_id = i.item_id AND b.booking_status = 'APPROVED' AND b.start_date > :now), " +
+            "booking_pointers_ready = TRUE ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Пересчитывает указатели вещей; вызывается в транзакции, изменившей их бронирования,
+     * после flush этих изменений.
+     */
+    public int refresh(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(REFRESH + "WHERE i.item_id IN (:itemIds)", Map.of("itemIds", itemIds, "now", now));
+    }
+
+    /**
+     * До limit id вещей, указатели которых ещё ни разу не пересчитывались (booking_pointers_ready = false);
+     * refresh снимает отметку, поэтому следующий вызов возвращает следующую порцию.
+     */
+    public List<Long> findNotReadyItemIds(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT i.item_id FROM items i WHERE NOT i.booking_pointers_ready ORDER BY i.item_id LIMIT :limit",
+                Map.of("limit", limit),
+                Long.class
+        );
+    }
+
+    /**
+     * Блокирует до limit вещей, у которых следующее бронирование уже началось, и возвращает их id.
+     * Блокировка строк нужна, чтобы пересчёт в той же транзакции видел подтверждения,
+     * закоммиченные до неё.
+     */
+    public List<Long> lockStarted(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT i.item_id FROM items i WHERE i.next_booking_start <= :now " +
+                        "ORDER BY i.item_id LIMIT :limit FOR UPDATE",
+                Map.of("now", now, "limit", limit),
+                Long.class
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сдвигает указатели last/next у вещей, чьё следующее бронирование уже началось: подтверждение
+ * и отклонение пересчитывают указатели сразу, а смена последнего бронирования со временем
+ * происходит без записи в БД. Пока сдвиг не выполнен, запрос вещей владельца сам выбирает бронирования
+ * по тем же правилам (ItemRepository.OWNER_ITEMS_QUERY). При старте указатели пересчитываются только
+ * у вещей, для которых это ещё не делалось (booking_pointers_ready = false), порциями, каждая в своей
+ * транзакции; на уже пересчитанной базе старт сводится к одному пустому запросу.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.booking-pointers.sweeper", name = "enabled", matchIfMissing = true)
+public class ItemBookingPointerSweeper {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final ItemBookingPointerRepository itemBookingPointerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int refreshed = 0;
+        int batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = transactionTemplate.execute(status -> {
+                List<Long> itemIds = itemBookingPointerRepository.findNotReadyItemIds(SWEEP_BATCH_SIZE);
+                itemBookingPointerRepository.refresh(itemIds, now);
+                return itemIds.size();
+            });
+            refreshed += batch;
+        } while (batch == SWEEP_BATCH_SIZE);
+        if (refreshed > 0) {
+            log.info("Backfilled booking pointers of {} items", refreshed);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.booking-pointers.sweeper.interval:PT30S}",
+            fixedDelayString = "${shareit.booking-pointers.sweeper.interval:PT30S}"
+    )
+    public void sweep() {
+        int swept = 0;
+        int batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = transactionTemplate.execute(status -> {
+                List<Long> itemIds = itemBookingPointerRepository.lockStarted(now, SWEEP_BATCH_SIZE);
+                itemBookingPointerRepository.refresh(itemIds, now);
+                return itemIds.size();
+            });
+            swept += batch;
+        } while (batch == SWEEP_BATCH_SIZE);
+        if (swept > 0) {
+            log.debug("Advanced booking pointers of {} items", swept);
+        }
+    }
+}
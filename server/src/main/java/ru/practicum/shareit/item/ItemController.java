@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.constant.HttpHeaders;
 import ru.practicum.shareit.item.dto.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -13,10 +20,38 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<ItemViewOwner> getItemsByUser(@RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId) {
-        return itemService.findAllByUserId(userId);
+    public List<ItemViewOwner> getItemsByUser(
+            @RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemService.findAllByUserId(userId, afterId, size);
+    }
+
+    /**
+     * Все вещи владельца после afterId одним JSON-массивом: вещи пишутся в ответ порциями по мере чтения
+     * из БД, поэтому ответ не собирается в памяти целиком. При ошибке посреди потока массив
+     * не закрывается: клиент получает невалидный JSON, а не усечённый, но корректный список.
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamItemsByUser(
+            @RequestHeader(name = HttpHeaders.USER_ID_HEADER) long userId,
+            @RequestParam(required = false) Long afterId
+    ) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                itemService.streamAllByUserId(userId, afterId, items -> writeItems(generator, items));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping("/{itemId}")
@@ -28,8 +63,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemView> getItemByName(@RequestParam String text) {
-        return itemService.findAllByName(text);
+    public List<ItemView> getItemByName(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemService.findAllByName(text, from, size);
     }
 
     @PostMapping
@@ -40,6 +79,14 @@ public class ItemController {
         return itemService.save(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchRowResult> createAll(
+            @RequestBody List<ItemDto> itemDtos,
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) long userId
+    ) {
+        return itemService.saveAll(itemDtos, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public Item update(
             @PathVariable long itemId,
@@ -57,4 +104,15 @@ public class ItemController {
     ) {
         return itemService.save(saveComment, itemId, userId);
     }
+
+    private void writeItems(JsonGenerator generator, List<ItemViewOwner> items) {
+        try {
+            for (ItemViewOwner item : items) {
+                objectMapper.writeValue(generator, item);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,47 +1,121 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.dto.ItemViewOwner;
+import ru.practicum.shareit.item.dto.ItemViewOwnerRow;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ResponseViewDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Integer> {
-    @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewOwner(" +
-            "i.itemId, i.user.id, i.name, i.description, i.available, " +
-            "lastBooking.bookingId, lastBooking.startDate, lastBooking.endDate, lastBooking.bookingStatus, " +
-            "lastBooker.id, lastBooker.name, " +
-            "nextBooking.bookingId, nextBooking.startDate, nextBooking.endDate, nextBooking.bookingStatus, " +
-            "nextBooker.id, nextBooker.name) " +
-            "FROM Item i " +
-            "LEFT JOIN Booking lastBooking ON lastBooking.item.itemId = i.itemId " +
-            "AND lastBooking.startDate = (" +
-            "   SELECT MAX(b.startDate) FROM Booking b " +
-            "   WHERE b.item.itemId = i.itemId " +
-            "   AND b.startDate < CURRENT_TIMESTAMP " +
-            "   AND b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.APPROVED" +
-            ") " +
-            "LEFT JOIN User lastBooker ON lastBooker.id = lastBooking.user.id " +
-            "LEFT JOIN Booking nextBooking ON nextBooking.item.itemId = i.itemId " +
-            "AND nextBooking.startDate = (" +
-            "   SELECT MIN(b.startDate) FROM Booking b " +
-            "   WHERE b.item.itemId = i.itemId " +
-            "   AND b.startDate > CURRENT_TIMESTAMP " +
-            "   AND b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.APPROVED" +
-            ") " +
-            "LEFT JOIN User nextBooker ON nextBooker.id = nextBooking.user.id " +
-            "WHERE i.user.id = :userId")
-    List<ItemViewOwner> findAllByUserId(@Param("userId") Long userId);
+public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Вещи владельца с последним и следующим подтверждённым бронированием. Бронирования берутся
+     * по указателям last_booking_id/next_booking_id (см. ItemBookingPointerRepository), поэтому запрос -
+     * просмотр items по индексу user_id и поиск бронирований и бронирующих по первичному ключу.
+     * Если следующее бронирование уже началось (next_booking_start <= now), а сдвиг указателей ещё
+     * не выполнен, или указатели вещи ещё не вычислялись (booking_pointers_ready = false: разовый пересчёт
+     * при старте не завершён или отключён), бронирования вещи выбираются подзапросами по тем же правилам,
+     * что и в ItemBookingTimeline, поэтому список и GET /items/{id} согласованы в любой момент.
+     * Курсор - id последней выданной вещи, для первой страницы передаётся 0.
+     */
+    String OWNER_ITEMS_QUERY = "SELECT i.item_id AS itemId, i.user_id AS ownerId, i.name AS name, " +
+            "i.description AS description, i.available AS available, " +
+            "lb.booking_id AS lastBookingId, CAST(lb.start_date AS TIMESTAMP) AS lastBookingStart, " +
+            "CAST(lb.end_date AS TIMESTAMP) AS lastBookingEnd, " +
+            "lb.booking_status AS lastBookingStatus, lu.user_id AS lastBookerId, lu.name AS lastBookerName, " +
+            "nb.booking_id AS nextBookingId, CAST(nb.start_date AS TIMESTAMP) AS nextBookingStart, " +
+            "CAST(nb.end_date AS TIMESTAMP) AS nextBookingEnd, " +
+            "nb.booking_status AS nextBookingStatus, nu.user_id AS nextBookerId, nu.name AS nextBookerName " +
+            "FROM items i " +
+            "LEFT JOIN bookings lb ON lb.booking_id = CASE WHEN NOT i.booking_pointers_ready OR i.next_booking_start <= :now " +
+            "   THEN " + ItemBookingPointerRepository.LAST_BOOKING_ID + " ELSE i.last_booking_id END " +
+            "LEFT JOIN users lu ON lu.user_id = lb.user_id " +
+            "LEFT JOIN bookings nb ON nb.booking_id = CASE WHEN NOT i.booking_pointers_ready OR i.next_booking_start <= :now " +
+            "   THEN " + ItemBookingPointerRepository.NEXT_BOOKING_ID + " ELSE i.next_booking_id END " +
+            "LEFT JOIN users nu ON nu.user_id = nb.user_id " +
+            "WHERE i.user_id = :userId AND i.item_id > :afterId " +
+            "ORDER BY i.item_id";
+
+    @Query(value = OWNER_ITEMS_QUERY, nativeQuery = true)
+    List<ItemViewOwnerRow> findAllRowsByUserId(@Param("userId") Long userId,
+                                               @Param("afterId") Long afterId,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    default List<ItemViewOwner> findAllByUserId(Long userId, Long afterId, LocalDateTime now, int size) {
+        return findAllRowsByUserId(userId, afterId == null ? 0 : afterId, now, OffsetPageRequest.of(0, size)).stream()
+                .map(ItemRepository::toItemViewOwner)
+                .toList();
+    }
+
+    private static ItemViewOwner toItemViewOwner(ItemViewOwnerRow row) {
+        return new ItemViewOwner(
+                row.getItemId(), row.getOwnerId(), row.getName(), row.getDescription(), row.getAvailable(),
+                row.getLastBookingId(), row.getLastBookingStart(), row.getLastBookingEnd(),
+                row.getLastBookingStatus() == null ? null : BookingStatus.valueOf(row.getLastBookingStatus()),
+                row.getLastBookerId(), row.getLastBookerName(),
+                row.getNextBookingId(), row.getNextBookingStart(), row.getNextBookingEnd(),
+                row.getNextBookingStatus() == null ? null : BookingStatus.valueOf(row.getNextBookingStatus()),
+                row.getNextBookerId(), row.getNextBookerName()
+        );
+    }
+
+    /**
+     * Поиск доступных вещей разбит на ранги, каждый ранг - отдельный запрос со своим LIMIT
+     * и порядком по id: точное совпадение названия, название начинается с текста, название содержит текст, совпадение
+     * только в описании. prefix и pattern - текст поиска с экранированными \, % и _ (см. LikePatterns),
+     * поэтому символы шаблона во вводе не работают как подстановки. Первые два ранга в PostgreSQL
+     * читают диапазон индекса по LOWER(name) (text_pattern_ops), остальные - триграммные индексы.
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE LOWER(i.name) = LOWER(:text) AND i.available = true " +
+            "ORDER BY i.itemId")
+    List<ItemView> findAllAvailableByNameEquals(@Param("text") String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE LOWER(i.name) LIKE LOWER(:prefix) ESCAPE '\\' " +
+            "AND LOWER(i.name) <> LOWER(:text) " +
+            "AND i.available = true " +
+            "ORDER BY i.itemId")
+    List<ItemView> findAllAvailableByNamePrefix(@Param("text") String text,
+                                                @Param("prefix") String prefix,
+                                                Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE " +
-            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "(LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))) " +
-            "AND i.available = true")
-    List<ItemView> findAllAvailableTrue(@Param("text") String text);
+    @Query("SELECT i FROM Item i " +
+            "WHERE LOWER(i.name) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "AND LOWER(i.name) NOT LIKE LOWER(:prefix) ESCAPE '\\' " +
+            "AND i.available = true " +
+            "ORDER BY i.itemId")
+    List<ItemView> findAllAvailableByNameContains(@Param("prefix") String prefix,
+                                                  @Param("pattern") String pattern,
+                                                  Pageable pageable);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE LOWER(i.description) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "AND LOWER(i.name) NOT LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "AND i.available = true " +
+            "ORDER BY i.itemId")
+    List<ItemView> findAllAvailableByDescriptionContains(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Вещь с владельцем, запросом и автором запроса одним запросом: вещь отдаётся в ответе целиком,
+     * поэтому связи выбираются в транзакции сервиса, а не догружаются при сериализации.
+     */
+    @Query("SELECT i FROM Item i " +
+            "JOIN FETCH i.user " +
+            "LEFT JOIN FETCH i.request r " +
+            "LEFT JOIN FETCH r.userId " +
+            "WHERE i.itemId = :itemId")
+    Optional<Item> findWithOwnerAndRequestByItemId(@Param("itemId") long itemId);
 
     @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewOwner(i.itemId, i.user.id, i.name, i.description, i.available)" +
             " FROM Item i WHERE i.itemId = :itemId")
@@ -55,4 +129,14 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
             "FROM Item i " +
             "WHERE i.request.id = :requestId")
     List<ResponseViewDto> findAllByRequestId(@Param("requestId") Long requestId);
-}
\ No newline at end of file
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ResponseViewDto(" +
+            "i.user.id, " +
+            "i.itemId, " +
+            "i.name, " +
+            "i.request.id" +
+            ") " +
+            "FROM Item i " +
+            "WHERE i.request.id IN :requestIds")
+    List<ResponseViewDto> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+}
@@ -3,16 +3,33 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.*;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     Item save(ItemDto item, long userId);
 
-    List<ItemViewOwner> findAllByUserId(long userId);
+    /**
+     * Пакетный импорт вещей владельца. Владелец и запросы загружаются один раз, строки с ошибками
+     * пропускаются и возвращаются с текстом ошибки, остальные записываются JDBC-пакетами.
+     */
+    List<ItemBatchRowResult> saveAll(List<ItemDto> items, long userId);
+
+    /**
+     * Страница вещей владельца по возрастанию id, начиная после вещи afterId (null - с начала).
+     */
+    List<ItemViewOwner> findAllByUserId(long userId, Long afterId, int size);
+
+    /**
+     * Все вещи владельца после afterId, прочитанные порциями по id. Вещи с отзывами передаются consumer
+     * порциями, поэтому в памяти одновременно находится только одна порция, а не весь каталог владельца.
+     * Consumer вызывается вне транзакции и не держит соединение с БД.
+     */
+    void streamAllByUserId(long userId, Long afterId, Consumer<List<ItemViewOwner>> consumer);
 
     void delete(long id, long userId);
 
-    List<ItemView> findAllByName(String name);
+    List<ItemView> findAllByName(String name, int from, int size);
 
     ItemViewOwner findById(long id, long userId);
 
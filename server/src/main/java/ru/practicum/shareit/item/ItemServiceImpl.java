@@ -1,103 +1,253 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
+import ru.practicum.shareit.booking.ItemBookingTimelines;
 import ru.practicum.shareit.exception.AccessRightException;
 import ru.practicum.shareit.exception.NotCompletedBooking;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.CommentMapperDto;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestsRepository;
+import ru.practicum.shareit.search.LikePatterns;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Service
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    /**
+     * Максимальное число id в одном IN-запросе (ограничение драйвера на количество параметров)
+     */
+    private static final int IN_CLAUSE_BATCH_SIZE = 1000;
+
+    /**
+     * Минимальная длина текста для поиска по подстроке: триграммный индекс не находит более короткие
+     * подстроки, поэтому короткий текст ищется только по началу названия
+     */
+    private static final int CONTAINS_MIN_LENGTH = 3;
+
+    /**
+     * Число вещей пакетного импорта, после которого контекст персистентности сбрасывается и очищается
+     */
+    private static final int IMPORT_FLUSH_SIZE = 500;
+
+    /**
+     * Число вещей, которые при потоковой выдаче читаются одним запросом, дополняются отзывами и передаются дальше
+     */
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    /**
+     * Длина колонки items.name: более длинное название отклоняется при проверке строки импорта,
+     * а не ошибкой БД при flush, которая откатила бы весь импорт
+     */
+    private static final int NAME_MAX_LENGTH = 255;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestsRepository itemRequestsRepository;
+    private final ItemViewCache itemViewCache;
+    private final ItemBookingTimelines itemBookingTimelines;
+    private final EntityManager entityManager;
 
     @Override
+    @Transactional
     public void delete(long id, long userId) {
-        log.info("Delete item with id={}", id);
-        checkAccessRight(id, userId);
-        Optional<Item> item = itemRepository.findById((int) id);
-        item.ifPresent(itemRepository::delete);
+        log.debug("Delete item with id={}", id);
+        Optional<Item> item = itemRepository.findById(id);
+        if (item.isPresent()) {
+            checkAccessRight(item.get(), userId);
+            itemRepository.delete(item.get());
+        }
+        itemViewCache.evict(id);
+        itemBookingTimelines.evict(id);
+    }
+
+    /**
+     * Последнее и следующее подтверждённое бронирование вещей приходят из запроса владельца,
+     * здесь догружаются только отзывы.
+     */
+    @Override
+    public List<ItemViewOwner> findAllByUserId(long userId, Long afterId, int size) {
+        log.debug("Find items by user with id={}, afterId={}, size={}", userId, afterId, size);
+        List<ItemViewOwner> itemViewOwners = itemRepository.findAllByUserId(userId, afterId, LocalDateTime.now(), size);
+        addComments(itemViewOwners);
+        return itemViewOwners;
     }
 
+    /**
+     * Вещи читаются keyset-порциями по id в отдельных коротких запросах, а не одним курсором в транзакции:
+     * пока порция пишется медленному клиенту, соединение с БД не занято.
+     */
     @Override
-    public List<ItemViewOwner> findAllByUserId(long userId) {
-        log.info("Find all items by user with id={}", userId);
-        List<ItemViewOwner> itemViewOwners = itemRepository.findAllByUserId(userId);
+    public void streamAllByUserId(long userId, Long afterId, Consumer<List<ItemViewOwner>> consumer) {
+        log.debug("Stream items by user with id={}, afterId={}", userId, afterId);
+        LocalDateTime now = LocalDateTime.now();
+        Long cursor = afterId;
+        List<ItemViewOwner> chunk;
+        do {
+            chunk = itemRepository.findAllByUserId(userId, cursor, now, STREAM_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            addComments(chunk);
+            consumer.accept(chunk);
+            cursor = chunk.getLast().getItemId();
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+    }
+
+    private void addComments(List<ItemViewOwner> itemViewOwners) {
+        if (itemViewOwners.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = itemViewOwners.stream()
+                .map(ItemViewOwner::getItemId)
+                .toList();
+        Map<Long, List<CommentView>> commentsByItemId = findAllInBatches(itemIds, commentRepository::findAllByItemIdIn)
+                .stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
         for (ItemViewOwner itemViewOwner : itemViewOwners) {
-            addCommentsInListItemView(itemViewOwner);
-            addBookingInListItemView(itemViewOwner);
+            itemViewOwner.setComments(commentsByItemId.getOrDefault(itemViewOwner.getItemId(), new ArrayList<>()));
         }
-        return itemViewOwners;
     }
 
     @Override
     public ItemViewOwner findById(long id, long userId) {
-        log.info("Find item with id {}", id);
-        Optional<ItemViewOwner> item = itemRepository.findByItemId(id);
-        if (item.isEmpty()) {
-            throw new NotFoundException("Item with id " + id + " not found");
-        }
-        ItemViewOwner itemViewOwner = item.get();
-        addCommentsInListItemView(itemViewOwner);
+        log.debug("Find item with id {}", id);
+        ItemViewOwner itemViewOwner = itemViewCache.get(id, () -> loadItemView(id));
         if (itemViewOwner.getOwnerId() == userId) {
-            addBookingInListItemView(itemViewOwner);
+            ItemBookingTimeline timeline = itemBookingTimelines.get(id);
+            LocalDateTime now = LocalDateTime.now();
+            itemViewOwner.setLastBooking(timeline.last(now));
+            itemViewOwner.setNextBooking(timeline.next(now));
         }
         return itemViewOwner;
     }
 
     @Override
-    public List<ItemView> findAllByName(String name) {
+    public List<ItemView> findAllByName(String name, int from, int size) {
         if (name.isBlank()) {
             log.warn("Name is blank");
             return List.of();
         }
-        log.info("Find items by name {}", name);
-        return itemRepository.findAllAvailableTrue(name);
+        log.debug("Find items by name {}, from={}, size={}", name, from, size);
+        OffsetPageRequest page = OffsetPageRequest.of(from, size);
+        // ранги читаются по очереди, каждый следующий дочитывает строки до from + size
+        int limit = (int) Math.min(page.getOffset() + page.getPageSize(), Integer.MAX_VALUE);
+        String prefix = LikePatterns.prefix(name);
+        List<ItemView> items = new ArrayList<>(itemRepository.findAllAvailableByNameEquals(name,
+                OffsetPageRequest.of(0, limit)));
+        if (items.size() < limit) {
+            items.addAll(itemRepository.findAllAvailableByNamePrefix(name, prefix,
+                    OffsetPageRequest.of(0, limit - items.size())));
+        }
+        if (name.length() >= CONTAINS_MIN_LENGTH) {
+            String pattern = LikePatterns.contains(name);
+            if (items.size() < limit) {
+                items.addAll(itemRepository.findAllAvailableByNameContains(prefix, pattern,
+                        OffsetPageRequest.of(0, limit - items.size())));
+            }
+            if (items.size() < limit) {
+                items.addAll(itemRepository.findAllAvailableByDescriptionContains(pattern,
+                        OffsetPageRequest.of(0, limit - items.size())));
+            }
+        }
+        return items.size() <= from ? List.of() : items.subList(from, items.size());
     }
 
     @Override
+    @Transactional
     public Item save(ItemDto itemDto, long userId) {
-        log.info("Save item {}", itemDto);
-        if (userRepository.findById(userId).isEmpty()) {
-            throw new NotFoundException("User with id " + userId + " not found");
-        }
+        log.debug("Save item for user {}", userId);
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
         Item item = Item.builder()
-                .user(userRepository.findById(userId).get())
+                .user(owner)
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
                 .build();
         if (itemDto.getRequestId() != null) {
-            item.setRequest(itemRequestsRepository.findById(itemDto.getRequestId()).get());
+            item.setRequest(itemRequestsRepository.findWithAuthorById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("ItemRequest with id " + itemDto.getRequestId() + " not found")));
         }
         return itemRepository.save(item);
     }
 
     @Override
-    public Item update(ItemUpdate newItem, long id, Long userId) {
-        log.info("Update item with id {}", id);
-        Optional<Item> itemOptional = itemRepository.findById((int) id);
-            checkAccessRight(id, userId);
-        if (itemOptional.isEmpty()) {
-            throw new NotFoundException("Item with id " + id + " not found");
+    @Transactional
+    public List<ItemBatchRowResult> saveAll(List<ItemDto> itemDtos, long userId) {
+        log.info("Save batch of {} items for user {}", itemDtos.size(), userId);
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        Map<Long, ItemRequest> requestsById = itemRequestsRepository.findAllById(itemDtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ItemBatchRowResult> results = new ArrayList<>(itemDtos.size());
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Item> pendingItems = new ArrayList<>();
+        for (int index = 0; index < itemDtos.size(); index++) {
+            ItemDto itemDto = itemDtos.get(index);
+            String error = validateForImport(itemDto, requestsById);
+            if (error != null) {
+                results.add(ItemBatchRowResult.failed(index, error));
+                continue;
+            }
+            results.add(null);
+            pendingIndexes.add(index);
+            pendingItems.add(Item.builder()
+                    .user(owner)
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .available(itemDto.getAvailable())
+                    .request(itemDto.getRequestId() == null ? null : requestsById.get(itemDto.getRequestId()))
+                    .build());
+            if (pendingItems.size() == IMPORT_FLUSH_SIZE) {
+                flushImported(pendingIndexes, pendingItems, results);
+            }
         }
-        Item item = itemOptional.get();
+        flushImported(pendingIndexes, pendingItems, results);
+        log.info("Saved {} of {} items for user {}", results.stream().filter(r -> r.getId() != null).count(),
+                itemDtos.size(), userId);
+        return results;
+    }
+
+    /**
+     * Вещь читается один раз вместе с отдаваемыми в ответе связями; изменения записываются
+     * при коммите транзакции одним update.
+     */
+    @Override
+    @Transactional
+    public Item update(ItemUpdate newItem, long id, Long userId) {
+        log.debug("Update item with id {}", id);
+        Item item = itemRepository.findWithOwnerAndRequestByItemId(id)
+                .orElseThrow(() -> new NotFoundException("Item with id " + id + " not found"));
+        checkAccessRight(item, userId);
         if (newItem.getName() != null) {
             item.setName(newItem.getName());
         }
@@ -107,78 +257,103 @@ public class ItemServiceImpl implements ItemService {
         if (newItem.getAvailable() != null) {
             item.setAvailable(newItem.getAvailable());
         }
-        return itemRepository.save(item);
+        itemViewCache.evict(id);
+        return item;
     }
 
+    /**
+     * Право на отзыв проверяется одним EXISTS-запросом. Вещь и автор подставляются ссылками без чтения:
+     * найденное бронирование гарантирует, что они существуют. Автор дочитывается только ради имени в ответе.
+     */
     @Override
+    @Transactional
     public CommentView save(SaveComment saveComment, long itemId, Long userId) {
-        log.info("Save comment {} for item {}", saveComment, itemId);
-        validateUserRentedItem(userId, itemId);
-        if (!hasUserCompletedBookingForItem(userId, itemId)) {
+        log.debug("Save comment for item {} by user {}", itemId, userId);
+        if (!bookingRepository.existsCompletedByUserIdAndItemId(userId, itemId, LocalDateTime.now())) {
+            if (!bookingRepository.existsByUserIdAndItemId(userId, itemId)) {
+                throw new AccessRightException("User with id " + userId + " not booked item with id " + itemId);
+            }
             throw new NotCompletedBooking("User with id " + userId + " not has been rented for item with id " + itemId);
         }
         Comment newComment = Comment.builder()
                 .text(saveComment.getText())
-                .user(userRepository.findById(userId).get())
-                .item(itemRepository.findById((int) itemId).get())
+                .user(userRepository.getReferenceById(userId))
+                .item(itemRepository.getReferenceById(itemId))
                 .build();
-        return CommentMapperDto.toViewDto(commentRepository.save(newComment));
+        CommentView commentView = CommentMapperDto.toViewDto(commentRepository.save(newComment));
+        itemViewCache.evict(itemId);
+        return commentView;
     }
 
-    private void checkAccessRight(long id, long userId) {
-        Optional<Item> item = itemRepository.findById((int) id);
-        if (item.isPresent()) {
-            if (item.get().getUser().getId() != userId) {
-                throw new AccessRightException(String.format(
-                        "Access rights denied. User %d is not the owner of item %d",
-                        userId,
-                        id)
-                );
-            }
+    private static String validateForImport(ItemDto itemDto, Map<Long, ItemRequest> requestsById) {
+        if (itemDto == null) {
+            return "Item is null";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Name is blank";
+        }
+        if (itemDto.getName().length() > NAME_MAX_LENGTH) {
+            return "Name is longer than " + NAME_MAX_LENGTH + " characters";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Description is blank";
         }
+        if (itemDto.getAvailable() == null) {
+            return "Available is null";
+        }
+        if (itemDto.getRequestId() != null && !requestsById.containsKey(itemDto.getRequestId())) {
+            return "ItemRequest with id " + itemDto.getRequestId() + " not found";
+        }
+        return null;
     }
 
-    private void validateUserRentedItem(Long userId, Long itemId) {
-        if (bookingRepository.findAllByUserIdAndItemItemId(userId, itemId).isEmpty()) {
-            throw new AccessRightException("User with id " + userId + " not booked item with id " + itemId);
+    private void flushImported(List<Integer> pendingIndexes, List<Item> pendingItems, List<ItemBatchRowResult> results) {
+        if (pendingItems.isEmpty()) {
+            return;
         }
+        itemRepository.saveAll(pendingItems);
+        entityManager.flush();
+        for (int i = 0; i < pendingItems.size(); i++) {
+            results.set(pendingIndexes.get(i), ItemBatchRowResult.created(pendingIndexes.get(i), pendingItems.get(i).getItemId()));
+        }
+        entityManager.clear();
+        pendingIndexes.clear();
+        pendingItems.clear();
     }
 
-    private void addCommentsInListItemView(ItemViewOwner itemViewOwner) {
-        itemViewOwner.setComments(commentRepository.findAllByItemId(itemViewOwner.getItemId()));
+    private static void checkAccessRight(Item item, long userId) {
+        if (item.getUser().getId() != userId) {
+            throw new AccessRightException(String.format(
+                    "Access rights denied. User %d is not the owner of item %d",
+                    userId,
+                    item.getItemId())
+            );
+        }
     }
 
-    private void addBookingInListItemView(ItemViewOwner itemViewOwner) {
-        List<BookingViewDTO> bookingViewDTOS = bookingRepository.findAllByItem_ItemId(itemViewOwner.getItemId());
-        for (BookingViewDTO bookingViewDTO : bookingViewDTOS) {
-            if (bookingViewDTO.getEndDate().isBefore(LocalDateTime.now())) {
-                if (itemViewOwner.getLastBooking() != null) {
-                    if (itemViewOwner.getLastBooking().getEndDate().isBefore(bookingViewDTO.getStartDate())) {
-                        itemViewOwner.setLastBooking(bookingViewDTO);
-                    }
-                } else {
-                    itemViewOwner.setLastBooking(bookingViewDTO);
-                }
-            } else {
-                if (itemViewOwner.getNextBooking() == null) {
-                    itemViewOwner.setNextBooking(bookingViewDTO);
-                } else {
-                    if (itemViewOwner.getNextBooking().getStartDate().isAfter(bookingViewDTO.getEndDate())) {
-                        itemViewOwner.setNextBooking(bookingViewDTO);
-                    }
-                }
-
-            }
+    /**
+     * Собирает представление вещи с отзывами для кэша; последнее и следующее бронирование
+     * добавляются при выдаче владельцу из временной шкалы бронирований вещи.
+     */
+    private ItemViewOwner loadItemView(long id) {
+        Optional<ItemViewOwner> item = itemRepository.findByItemId(id);
+        if (item.isEmpty()) {
+            throw new NotFoundException("Item with id " + id + " not found");
         }
+        ItemViewOwner itemViewOwner = item.get();
+        addCommentsInListItemView(itemViewOwner);
+        return itemViewOwner;
     }
 
-    private Boolean hasUserCompletedBookingForItem(Long userId, Long itemId) {
-        List<BookingViewDTO> bookingViewDTOs = bookingRepository.findAllByUserIdAndItemItemId(userId, itemId);
-        for (BookingViewDTO bookingViewDTO : bookingViewDTOs) {
-            if (bookingViewDTO.getEndDate().isBefore(LocalDateTime.now()) || bookingViewDTO.getEndDate().equals(LocalDateTime.now())) {
-                return true;
-            }
+    private void addCommentsInListItemView(ItemViewOwner itemViewOwner) {
+        itemViewOwner.setComments(commentRepository.findAllByItemId(itemViewOwner.getItemId()));
+    }
+
+    private static <T> List<T> findAllInBatches(List<Long> ids, Function<List<Long>, List<T>> loader) {
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            result.addAll(loader.apply(ids.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, ids.size()))));
         }
-        return false;
+        return result;
     }
 }
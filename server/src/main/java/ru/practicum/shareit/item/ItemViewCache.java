@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemViewOwner;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Кэш собранных представлений вещи (с комментариями) для GET /items/{id}.
+ * Размер и время жизни записей задаются spring.cache.caffeine.spec.
+ */
+@Component
+public class ItemViewCache {
+
+    public static final String CACHE_NAME = "items";
+
+    private final Cache cache;
+
+    public ItemViewCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    /**
+     * Возвращает копию закэшированного представления, при промахе собирает его через loader.
+     */
+    public ItemViewOwner get(long itemId, Supplier<ItemViewOwner> loader) {
+        try {
+            return copy(cache.get(itemId, loader::get));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Удаляет вещь из кэша сразу и повторно после коммита текущей транзакции, чтобы
+     * параллельное чтение не вернуло в кэш данные, которые ещё не закоммичены.
+     */
+    public void evict(long itemId) {
+        cache.evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(itemId);
+                }
+            });
+        }
+    }
+
+    private static ItemViewOwner copy(ItemViewOwner itemViewOwner) {
+        ItemViewOwner copy = new ItemViewOwner(
+                itemViewOwner.getItemId(),
+                itemViewOwner.getOwnerId(),
+                itemViewOwner.getName(),
+                itemViewOwner.getDescription(),
+                itemViewOwner.getAvailable()
+        );
+        copy.setComments(new ArrayList<>(itemViewOwner.getComments()));
+        return copy;
+    }
+}
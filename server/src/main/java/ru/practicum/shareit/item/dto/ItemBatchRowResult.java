@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Результат импорта одной строки пакета: id созданной вещи либо текст ошибки.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBatchRowResult {
+
+    private int index;
+
+    private Long id;
+
+    private String error;
+
+    public static ItemBatchRowResult created(int index, Long id) {
+        return new ItemBatchRowResult(index, id, null);
+    }
+
+    public static ItemBatchRowResult failed(int index, String error) {
+        return new ItemBatchRowResult(index, null, error);
+    }
+}
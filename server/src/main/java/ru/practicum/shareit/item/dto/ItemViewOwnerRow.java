@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка нативного запроса списка вещей владельца с последним и следующим бронированием.
+ */
+public interface ItemViewOwnerRow {
+    Long getItemId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getLastBookingId();
+
+    LocalDateTime getLastBookingStart();
+
+    LocalDateTime getLastBookingEnd();
+
+    String getLastBookingStatus();
+
+    Long getLastBookerId();
+
+    String getLastBookerName();
+
+    Long getNextBookingId();
+
+    LocalDateTime getNextBookingStart();
+
+    LocalDateTime getNextBookingEnd();
+
+    String getNextBookingStatus();
+
+    Long getNextBookerId();
+
+    String getNextBookerName();
+}
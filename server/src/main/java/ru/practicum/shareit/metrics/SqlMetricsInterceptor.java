@@ -0,0 +1,89 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Публикует SQL-статистику каждого вызова контроллера в Micrometer и логирует тяжёлые запросы.
+ * Метрики помечены тегами controller и method, поэтому видны по каждому эндпоинту отдельно.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMetricsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            if (request.getAttribute(SqlRequestStats.REQUEST_ATTRIBUTE) instanceof SqlRequestStats suspended) {
+                SqlRequestStats.resume(suspended);
+            } else {
+                SqlRequestStats.start();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Асинхронный ответ: afterCompletion в этом потоке не вызывается, поэтому статистика отвязывается
+     * от потока и передаётся дальше через атрибут запроса; публикуется после асинхронного dispatch.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlRequestStats stats = SqlRequestStats.finish();
+        if (stats != null) {
+            request.setAttribute(SqlRequestStats.REQUEST_ATTRIBUTE, stats);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        request.removeAttribute(SqlRequestStats.REQUEST_ATTRIBUTE);
+        SqlRequestStats stats = SqlRequestStats.finish();
+        if (stats == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        Tags tags = Tags.of(
+                "controller", handlerMethod.getBeanType().getSimpleName(),
+                "method", handlerMethod.getMethod().getName()
+        );
+        DistributionSummary.builder("shareit.sql.statements")
+                .description("SQL statements executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("shareit.sql.time")
+                .description("Total JDBC execution time per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getTotalTime());
+        Timer.builder("shareit.sql.slowest")
+                .description("Slowest SQL statement per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getSlowestTime());
+
+        if (stats.getTotalTime().compareTo(properties.getSlowRequestThreshold()) > 0
+                || stats.getStatementCount() > properties.getStatementCountThreshold()) {
+            log.warn("{} {} ({}.{}): {} SQL statements, JDBC time {} ms, slowest {} ms: {}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    handlerMethod.getBeanType().getSimpleName(),
+                    handlerMethod.getMethod().getName(),
+                    stats.getStatementCount(),
+                    stats.getTotalTime().toMillis(),
+                    stats.getSlowestTime().toMillis(),
+                    stats.getSlowestSql());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки учёта SQL-запросов, выполненных при обработке одного REST-запроса.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-metrics")
+public class SqlMetricsProperties {
+
+    /**
+     * Включает прокси над DataSource и публикацию метрик shareit.sql.*.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Запрос логируется, если суммарное время JDBC превысило этот порог.
+     */
+    private Duration slowRequestThreshold = Duration.ofMillis(200);
+
+    /**
+     * Запрос логируется, если число SQL-выражений превысило этот порог.
+     */
+    private int statementCountThreshold = 10;
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * SQL-статистика текущего REST-запроса: число выражений, суммарное время JDBC и самое медленное выражение.
+ * Привязывается к потоку обработки запроса на время его выполнения. При асинхронной обработке статистика
+ * хранится в атрибуте запроса REQUEST_ATTRIBUTE и по очереди привязывается к потоку, пишущему ответ,
+ * и к потоку асинхронного dispatch, поэтому учитывает SQL всех этапов запроса.
+ */
+@Getter
+public class SqlRequestStats {
+
+    public static final String REQUEST_ATTRIBUTE = SqlRequestStats.class.getName();
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long totalNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    public static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void resume(SqlRequestStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlRequestStats finish() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void record(String sql, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        if (slowestSql == null || nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    public Duration getSlowestTime() {
+        return Duration.ofNanos(slowestNanos);
+    }
+}
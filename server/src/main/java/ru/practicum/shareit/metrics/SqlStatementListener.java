@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Учитывает каждое выполнение JDBC-выражения в статистике текущего REST-запроса.
+ * Пакет (batch) считается одним выражением: это один обмен с базой данных.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = "shareit.sql.start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlRequestStats.current() != null) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (stats == null || startNanos == null) {
+            return;
+        }
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .distinct()
+                .collect(Collectors.joining("; "));
+        stats.record(sql, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Привязывает SQL-статистику запроса к потоку, выполняющему асинхронный ответ (StreamingResponseBody,
+ * Callable), чтобы SQL, выполненный при записи ответа, учитывался в метриках эндпоинта.
+ */
+public class SqlStatsCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(SqlRequestStats.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof SqlRequestStats stats) {
+            SqlRequestStats.resume(stats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        SqlRequestStats.finish();
+    }
+}
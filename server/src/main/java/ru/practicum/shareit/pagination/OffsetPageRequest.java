@@ -0,0 +1,75 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationDataException;
+
+/**
+ * Страница, заданная смещением from и размером size, как в параметрах REST API.
+ * PageRequest.of(from / size, size) теряет смещение, если from не кратно size.
+ */
+public final class OffsetPageRequest implements Pageable {
+
+    private final long offset;
+    private final int size;
+
+    private OffsetPageRequest(long offset, int size) {
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static OffsetPageRequest of(int from, int size) {
+        if (from < 0) {
+            throw new ValidationDataException("Parameter from must not be negative: " + from);
+        }
+        if (size <= 0) {
+            throw new ValidationDataException("Parameter size must be positive: " + size);
+        }
+        return new OffsetPageRequest(from, size);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - size), size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -16,8 +16,11 @@ public class ItemRequestController {
     private final ItemRequestsService itemRequestsService;
 
     @GetMapping("/all")
-    public List<ItemRequestViewDto> findAll() {
-        return itemRequestsService.findAll();
+    public List<ItemRequestViewDto> findAll(
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemRequestsService.findAll(from, size);
     }
 
     @GetMapping("/{requestId}")
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -35,6 +36,12 @@ public interface ItemRequestsRepository extends JpaRepository<ItemRequest, Long>
             "req.createDate" +
             ") " +
             "FROM ItemRequest req " +
-            "ORDER BY req.createDate ASC")
-    List<ItemRequestViewDto> findAllOrderByCreateDate();
+            "ORDER BY req.createDate ASC, req.id ASC")
+    List<ItemRequestViewDto> findAllOrderByCreateDate(Pageable pageable);
+
+    /**
+     * Запрос вместе с автором: запрос вкладывается в ответ на создание вещи целиком.
+     */
+    @Query("SELECT req FROM ItemRequest req JOIN FETCH req.userId WHERE req.id = :id")
+    Optional<ItemRequest> findWithAuthorById(@Param("id") Long id);
 }
@@ -11,7 +11,7 @@ public interface ItemRequestsService {
 
     List<ItemRequestViewDto> findAllByUserId(Long userId);
 
-    List<ItemRequestViewDto> findAll();
+    List<ItemRequestViewDto> findAll(int from, int size);
 
     ItemRequestViewDto findById(Long id);
 }
@@ -6,13 +6,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestViewDto;
 import ru.practicum.shareit.request.dto.ResponseViewDto;
 import ru.practicum.shareit.request.dto.SaveItemRequestDto;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -28,7 +32,7 @@ public class ItemRequestsServiceImpl implements ItemRequestsService {
 
     @Override
     public ItemRequest save(SaveItemRequestDto req) {
-        log.info("Save ItemRequest");
+        log.debug("Save ItemRequest");
         ItemRequest itemRequest = ItemRequest.builder()
                 .description(req.getDescription())
                 .userId(userRepository.findById(req.getUserId()).get())
@@ -38,7 +42,7 @@ public class ItemRequestsServiceImpl implements ItemRequestsService {
 
     @Override
     public ItemRequestViewDto findById(Long id) {
-        log.info("Find ItemRequest by Id {}", id);
+        log.debug("Find ItemRequest by Id {}", id);
         Optional<ItemRequestViewDto> itemRequestViewDto = itemRequestsRepository.findByRequestId(id);
         if (itemRequestViewDto.isEmpty()) {
             throw new NotFoundException("ItemRequest with id " + id + " not found");
@@ -48,28 +52,42 @@ public class ItemRequestsServiceImpl implements ItemRequestsService {
 
     @Override
     public List<ItemRequestViewDto> findAllByUserId(Long userId) {
-        log.info("Find All ItemRequest by UserId {}", userId);
-        List<ItemRequestViewDto> itemRequestViewDto = itemRequestsRepository.findAllByUserIdOrderByCreateDate(userId);
-        for (ItemRequestViewDto requestViewDto : itemRequestViewDto) {
-            addResponse(requestViewDto);
-        }
-        return itemRequestViewDto;
+        log.debug("Find All ItemRequest by UserId {}", userId);
+        return addResponses(itemRequestsRepository.findAllByUserIdOrderByCreateDate(userId));
     }
 
     @Override
-    public List<ItemRequestViewDto> findAll() {
-        log.info("Find All ItemRequests");
-        List<ItemRequestViewDto> itemRequestViewDtoList = itemRequestsRepository.findAllOrderByCreateDate();
-        for (ItemRequestViewDto requestViewDto : itemRequestViewDtoList) {
-            addResponse(requestViewDto);
-        }
-        return itemRequestViewDtoList;
+    public List<ItemRequestViewDto> findAll(int from, int size) {
+        log.debug("Find All ItemRequests, from={}, size={}", from, size);
+        return addResponses(itemRequestsRepository.findAllOrderByCreateDate(OffsetPageRequest.of(from, size)));
     }
 
     private ItemRequestViewDto addResponse(ItemRequestViewDto itemRequestViewDto) {
-        log.info("Add ItemRequest with id {} all response", itemRequestViewDto.getRequestId());
+        log.debug("Add ItemRequest with id {} all response", itemRequestViewDto.getRequestId());
         List<ResponseViewDto> responseViewDtoList = itemRepository.findAllByRequestId(itemRequestViewDto.getRequestId());
         itemRequestViewDto.setResponseViewDtoList(responseViewDtoList);
         return itemRequestViewDto;
     }
+
+    /**
+     * Загружает ответы на все запросы списка одним IN-запросом и раскладывает их по id запроса.
+     */
+    private List<ItemRequestViewDto> addResponses(List<ItemRequestViewDto> itemRequestViewDtoList) {
+        if (itemRequestViewDtoList.isEmpty()) {
+            return itemRequestViewDtoList;
+        }
+        List<Long> requestIds = itemRequestViewDtoList.stream()
+                .map(ItemRequestViewDto::getRequestId)
+                .toList();
+        log.debug("Add all responses for {} ItemRequests", requestIds.size());
+        Map<Long, List<ResponseViewDto>> responsesByRequestId = itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(ResponseViewDto::getRequestId));
+        for (ItemRequestViewDto itemRequestViewDto : itemRequestViewDtoList) {
+            itemRequestViewDto.setResponseViewDtoList(
+                    responsesByRequestId.getOrDefault(itemRequestViewDto.getRequestId(), new ArrayList<>())
+            );
+        }
+        return itemRequestViewDtoList;
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,4 +15,13 @@ public class ResponseViewDto {
     private Long itemId;
 
     private String name;
+
+    @JsonIgnore
+    private Long requestId;
+
+    public ResponseViewDto(Long userId, Long itemId, String name) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.name = name;
+    }
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.search;
+
+/**
+ * Шаблоны LIKE из текста поиска. Символы \, % и _ экранируются обратной косой чертой и совпадают
+ * только сами с собой, поэтому запрос с таким шаблоном объявляет ESCAPE '\'.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String prefix(String text) {
+        return escape(text) + "%";
+    }
+
+    public static String contains(String text) {
+        return "%" + escape(text) + "%";
+    }
+
+    private static String escape(String text) {
+        return text
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -15,8 +15,12 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public List<UserDto> findAll() {
-        return userService.findAll();
+    public List<UserDto> findAll(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return userService.findAll(text, afterId, size);
     }
 
     @GetMapping("/{id}")
@@ -7,14 +7,18 @@ import java.util.List;
 
 public interface UserService {
 
-    public List<UserDto> findAll();
+    /**
+     * Страница пользователей по возрастанию id после afterId (null - с начала). Если задан text,
+     * выбираются пользователи, у которых имя или email начинается с text без учёта регистра:
+     * сначала совпавшие по имени в порядке имени, затем остальные совпавшие по email в порядке email.
+     * afterId - id последнего пользователя предыдущей страницы, от него продолжается тот же порядок.
+     */
+    public List<UserDto> findAll(String text, Long afterId, int size);
 
     public UserDto findById(long id);
 
     public UserDto findByEmail(String email);
 
-    public List<UserDto> findByName(String name);
-
     public User save(User user);
 
     public User update(UserUpdate user, long userId);
@@ -2,41 +2,74 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemViewCache;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.search.LikePatterns;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdate;
 import ru.practicum.shareit.user.mapper.UserMapperDto;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final ItemViewCache itemViewCache;
 
     @Override
+    @Transactional
     public void delete(long id) {
-        log.info("UserServiceImpl.delete");
-        userRepository.delete(userRepository.findById(id).get());
+        log.debug("UserServiceImpl.delete");
+        User user = userRepository.findById(id).get();
+        evictCommentedItems(id);
+        userRepository.delete(user);
     }
 
     @Override
-    public List<UserDto> findAll() {
-        log.info("UserServiceImpl.findAll");
-        return userRepository.findAll()
-                .stream()
-                .map(UserMapperDto::toDto)
-                .collect(Collectors.toList());
+    public List<UserDto> findAll(String text, Long afterId, int size) {
+        log.debug("UserServiceImpl.findAll text={}, afterId={}, size={}", text, afterId, size);
+        Pageable page = OffsetPageRequest.of(0, size);
+        if (text == null || text.isBlank()) {
+            return userRepository.findPage(afterId == null ? 0 : afterId, page);
+        }
+        String search = text.strip().toLowerCase(Locale.ROOT);
+        String prefix = LikePatterns.prefix(search);
+        User after = afterId == null ? null : userRepository.findById(afterId)
+                .orElseThrow(() -> new NotFoundException("User with id " + afterId + " not found"));
+        List<UserDto> users = new ArrayList<>();
+        if (after == null || after.getName().toLowerCase(Locale.ROOT).startsWith(search)) {
+            users.addAll(userRepository.findPageByNamePrefix(prefix,
+                    after == null ? search : after.getName().toLowerCase(Locale.ROOT),
+                    after == null ? 0 : after.getId(),
+                    page));
+            if (users.size() == size) {
+                return users;
+            }
+            after = null;
+            page = OffsetPageRequest.of(0, size - users.size());
+        }
+        users.addAll(userRepository.findPageByEmailPrefix(prefix,
+                after == null ? search : after.getEmail().toLowerCase(Locale.ROOT),
+                after == null ? 0 : after.getId(),
+                page));
+        return users;
     }
 
     @Override
     public UserDto findByEmail(String email) {
-        log.info("UserServiceImpl.findByEmail");
+        log.debug("UserServiceImpl.findByEmail");
         Optional<User> user = userRepository.findByEmail(email);
         if (user.isPresent()) {
             return UserMapperDto.toDto(user.get());
@@ -47,7 +80,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto findById(long id) {
-        log.info("UserServiceImpl.findById");
+        log.debug("UserServiceImpl.findById");
         Optional<User> user = userRepository.findById(id);
         if (user.isPresent()) {
             return UserMapperDto.toDto(user.get());
@@ -56,44 +89,40 @@ public class UserServiceImpl implements UserService {
         throw new NotFoundException("User with id " + id + " not found");
     }
 
-    @Override
-    public List<UserDto> findByName(String name) {
-        log.info("UserServiceImpl.findByName");
-        List<User> users = userRepository.findByName(name);
-        if (!users.isEmpty()) {
-            return users
-                    .stream()
-                    .map(UserMapperDto::toDto)
-                    .collect(Collectors.toList());
-        }
-        log.warn("User with name {} not found", name);
-        throw new NotFoundException("User with name " + name + " not found");
+    /**
+     * Представления вещей в кэше содержат имена авторов комментариев, поэтому переименование
+     * и удаление автора сбрасывают вещи, которые он комментировал.
+     */
+    private void evictCommentedItems(long userId) {
+        commentRepository.findAllItemIdsByUserId(userId).forEach(itemViewCache::evict);
     }
 
     @Override
     public User save(User user) {
-        log.info("UserServiceImpl.save");
+        log.debug("UserServiceImpl.save");
         return userRepository.save(user);
     }
 
+    /**
+     * Пользователь читается один раз; изменения записываются при коммите транзакции одним update.
+     */
     @Override
+    @Transactional
     public User update(UserUpdate userUpdate, long userId) {
-        log.info("UserServiceImpl.update");
-        if (userRepository.findById(userId).isEmpty()) {
-            log.warn("User with id: {} not found", userId);
-            throw new NotFoundException("User with id " + userId + " not found");
-        }
-//        checkDuplicationEmail(userUpdate.getEmail());
+        log.debug("UserServiceImpl.update");
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
+            log.warn("User with id: {} not found", userId);
             throw new NotFoundException("User with id " + userId + " not found");
         }
-        if (userUpdate.getName() != null) {
+//        checkDuplicationEmail(userUpdate.getEmail());
+        if (userUpdate.getName() != null && !userUpdate.getName().equals(user.get().getName())) {
             user.get().setName(userUpdate.getName());
+            evictCommentedItems(userId);
         }
         if (userUpdate.getEmail() != null) {
             user.get().setEmail(userUpdate.getEmail());
         }
-        return userRepository.save(user.get());
+        return user.get();
     }
 }
@@ -1,19 +1,52 @@
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
-
-    public Optional<User> findById(long id);
+public interface UserRepository extends JpaRepository<User, Long> {
 
     public Optional<User> findByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:name%")
-    public List<User> findByName(@Param("name") String name);
+    /**
+     * Страница пользователей по возрастанию id после пользователя afterId (для первой страницы 0).
+     */
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u " +
+            "WHERE u.id > :afterId ORDER BY u.id")
+    public List<UserDto> findPage(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Страница пользователей, у которых имя начинается с prefix (в нижнем регистре, с экранированными % и _
+     * и завершающим %), по возрастанию (LOWER(name), id) строго после ключа (afterName, afterId).
+     * Для первой страницы afterName - сам текст поиска, afterId - 0. Условие LOWER(name) >= afterName
+     * задаёт начало диапазона в индексе idx_users_name_keyset, поэтому страница читается без сортировки
+     * и смещения; для редких префиксов PostgreSQL может выбрать idx_users_name_prefix.
+     */
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u " +
+            "WHERE LOWER(u.name) LIKE :prefix ESCAPE '\\' " +
+            "AND LOWER(u.name) >= :afterName AND (LOWER(u.name) > :afterName OR u.id > :afterId) " +
+            "ORDER BY LOWER(u.name), u.id")
+    public List<UserDto> findPageByNamePrefix(@Param("prefix") String prefix,
+                                              @Param("afterName") String afterName,
+                                              @Param("afterId") long afterId,
+                                              Pageable pageable);
+
+    /**
+     * То же по email для пользователей, чьё имя с prefix не начинается (они уже выданы поиском по имени):
+     * по возрастанию (LOWER(email), id) после ключа (afterEmail, afterId), индекс idx_users_email_keyset.
+     */
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u " +
+            "WHERE LOWER(u.email) LIKE :prefix ESCAPE '\\' AND LOWER(u.name) NOT LIKE :prefix ESCAPE '\\' " +
+            "AND LOWER(u.email) >= :afterEmail AND (LOWER(u.email) > :afterEmail OR u.id > :afterId) " +
+            "ORDER BY LOWER(u.email), u.id")
+    public List<UserDto> findPageByEmailPrefix(@Param("prefix") String prefix,
+                                               @Param("afterEmail") String afterEmail,
+                                               @Param("afterId") long afterId,
+                                               Pageable pageable);
 }
@@ -0,0 +1,64 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops);
+
+-- Ранги поиска вещей "название совпадает" и "название начинается с текста" (= и LIKE 'abc%' по LOWER).
+CREATE INDEX IF NOT EXISTS idx_items_name_prefix ON items (LOWER(name) text_pattern_ops);
+
+-- Поиск пользователей по началу имени или email (LIKE 'abc%' по LOWER).
+CREATE INDEX IF NOT EXISTS idx_users_name_prefix ON users (LOWER(name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (LOWER(email) text_pattern_ops);
+
+-- Keyset-страницы поиска по префиксу: порядок (LOWER(name), user_id) и (LOWER(email), user_id)
+-- читается из индекса, продолжение страницы начинается с ключа последней строки без OFFSET.
+CREATE INDEX IF NOT EXISTS idx_users_name_keyset ON users (LOWER(name), user_id);
+
+CREATE INDEX IF NOT EXISTS idx_users_email_keyset ON users (LOWER(email), user_id);
+
+-- Поиска пользователей по подстроке имени больше нет, триграммный индекс для него не нужен.
+DROP INDEX IF EXISTS idx_users_name_trgm;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Подтверждённые бронирования одной вещи не должны пересекаться по времени.
+-- EXCLUDE-ограничение нельзя добавить как NOT VALID: если в таблице уже есть пересекающиеся
+-- подтверждённые бронирования, они перечисляются в предупреждении, а ограничение не создаётся
+-- и проверка повторяется при следующем запуске. Сервер при этом стартует и защищает
+-- подтверждения блокировкой вещи.
+DO '
+DECLARE
+    conflicts text;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        SELECT string_agg(a.booking_id || ''/'' || b.booking_id, '', '' ORDER BY a.booking_id, b.booking_id)
+        INTO conflicts
+        FROM bookings a
+        JOIN bookings b ON b.item_id = a.item_id
+            AND b.booking_id > a.booking_id
+            AND tstzrange(b.start_date, b.end_date) && tstzrange(a.start_date, a.end_date)
+        WHERE a.booking_status = ''APPROVED''
+            AND b.booking_status = ''APPROVED'';
+
+        IF conflicts IS NULL THEN
+            ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+                EXCLUDE USING gist (item_id WITH =, tstzrange(start_date, end_date) WITH &&)
+                WHERE (booking_status = ''APPROVED'');
+        ELSE
+            RAISE WARNING ''ex_bookings_item_period not created, overlapping APPROVED bookings (id/id): %'', conflicts;
+        END IF;
+    END IF;
+END';
+
+-- Сдвигает последовательности за id, выданные раньше через IDENTITY; назад не откатывает.
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(user_id), 1) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('requests_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM requests), (SELECT last_value FROM requests_seq)));
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(item_id), 1) FROM items), (SELECT last_value FROM items_seq)));
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(booking_id), 1) FROM bookings), (SELECT last_value FROM bookings_seq)));
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM comments), (SELECT last_value FROM comments_seq)));
+
+-- Вещи, ожидающие разового пересчёта указателей (шаг 7 schema.sql): при пустом множестве запрос
+-- ItemBookingPointerSweeper.backfill на старте читает пустой частичный индекс, а не всю таблицу.
+CREATE INDEX IF NOT EXISTS idx_items_booking_pointers_pending ON items (item_id) WHERE NOT booking_pointers_ready;
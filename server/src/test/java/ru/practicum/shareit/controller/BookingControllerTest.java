@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingSave;
 import ru.practicum.shareit.booking.dto.BookingViewDTO;
@@ -118,11 +119,11 @@ public class BookingControllerTest {
 
     @Test
     public void findAllByUserIdTest() throws Exception {
-        when(bookingService.findAllByUserId(anyLong(), any(BookingStatus.class)))
+        when(bookingService.findAllByUserId(anyLong(), eq(BookingState.WAITING), isNull(), anyInt(), anyInt()))
                 .thenReturn(creteListBookingViewDTO());
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", user.getId())
-                        .param("status", BookingStatus.APPROVED.name())
+                        .param("state", BookingState.WAITING.name())
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
@@ -132,11 +133,13 @@ public class BookingControllerTest {
 
     @Test
     public void findAllByOwnerIdTest() throws Exception {
-        when(bookingService.findAllByOwnerId(anyLong(), any(BookingStatus.class)))
+        when(bookingService.findAllByOwnerId(anyLong(), eq(BookingState.PAST), isNull(), eq(10), eq(5)))
                 .thenReturn(creteListBookingViewDTO());
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", user.getId())
-                        .param("status", BookingStatus.APPROVED.name())
+                        .param("state", BookingState.PAST.name())
+                        .param("from", "10")
+                        .param("size", "5")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON))
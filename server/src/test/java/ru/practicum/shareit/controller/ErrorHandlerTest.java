@@ -118,6 +118,20 @@ class ErrorHandlerTest {
         assertEquals(errorMessage, response.getMessage());
     }
 
+    @Test
+    void handlerException_BookingOverlapException_ShouldReturnConflictStatus() {
+        // Given
+        String errorMessage = "Item already booked";
+        BookingOverlapException exception = new BookingOverlapException(errorMessage);
+
+        // When
+        ExceptionResponse response = errorHandler.handlerException(exception);
+
+        // Then
+        assertNotNull(response);
+        assertEquals(errorMessage, response.getMessage());
+    }
+
     // Тест для проверки, что все исключения возвращают правильный HTTP статус
     @Test
     void allExceptionHandlers_ShouldReturnCorrectHttpStatus() {
@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.controller.dto.ItemViewImpl;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemController;
@@ -19,12 +20,19 @@ import ru.practicum.shareit.user.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -47,7 +55,7 @@ public class ItemControllerTest {
 
     @Test
     public void getItemByUserIdTest() throws Exception {
-        when(itemService.findAllByUserId(anyLong()))
+        when(itemService.findAllByUserId(anyLong(), any(), anyInt()))
                 .thenReturn(createItemViewOwnerList());
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", user.getId())
@@ -58,6 +66,52 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.size()", is(4L), Long.class));
     }
 
+    @Test
+    public void streamItemsByUserIdTest() throws Exception {
+        List<ItemViewOwner> items = createItemViewOwnerList();
+        doAnswer(invocation -> {
+            Consumer<List<ItemViewOwner>> consumer = invocation.getArgument(2);
+            consumer.accept(items.subList(0, 3));
+            consumer.accept(items.subList(3, 4));
+            return null;
+        }).when(itemService).streamAllByUserId(eq(user.getId()), eq(5L), any());
+
+        MvcResult result = mvc.perform(get("/items")
+                        .param("stream", "true")
+                        .param("afterId", "5")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(4L), Long.class))
+                .andExpect(jsonPath("$[0].name", is(item.getName())));
+    }
+
+    @Test
+    public void streamItemsByUserIdFailureLeavesArrayOpenTest() throws Exception {
+        List<ItemViewOwner> items = createItemViewOwnerList();
+        doAnswer(invocation -> {
+            Consumer<List<ItemViewOwner>> consumer = invocation.getArgument(2);
+            consumer.accept(items.subList(0, 2));
+            throw new IllegalStateException("cursor failed");
+        }).when(itemService).streamAllByUserId(eq(user.getId()), isNull(), any());
+
+        MvcResult result = mvc.perform(get("/items")
+                        .param("stream", "true")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body, startsWith("[{"));
+        assertThat(body, not(endsWith("]")));
+    }
+
     @Test
     public void getItemByIdTest() throws Exception {
         ItemViewOwner itemViewOwner = new ItemViewOwner();
@@ -83,7 +137,7 @@ public class ItemControllerTest {
 
     @Test
     public void getItemByNameTest() throws Exception {
-        when(itemService.findAllByName(anyString()))
+        when(itemService.findAllByName(anyString(), anyInt(), anyInt()))
                 .thenReturn(createItemViewList());
         mvc.perform(get("/items/search")
                         .param("text", item.getName())
@@ -116,6 +170,26 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is(item.getName())));
     }
 
+    @Test
+    public void createAllItemsTest() throws Exception {
+        when(itemService.saveAll(anyList(), anyLong()))
+                .thenReturn(List.of(
+                        ItemBatchRowResult.created(0, 1L),
+                        ItemBatchRowResult.failed(1, "Name is blank")
+                ));
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(mapper.writeValueAsString(List.of(new ItemDto(), new ItemDto())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Name is blank")));
+    }
+
     @Test
     public void updateItemTest() throws Exception {
         ItemUpdate itemUpdate = new ItemUpdate();
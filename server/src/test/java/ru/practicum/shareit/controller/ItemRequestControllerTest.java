@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -43,7 +44,7 @@ public class ItemRequestControllerTest {
 
     @Test
     public void findAllTest() throws Exception {
-        when(itemRequestsService.findAll())
+        when(itemRequestsService.findAll(anyInt(), anyInt()))
                 .thenReturn(creatItemRequestViewDtoList());
         mvc.perform(get("/requests/all")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.metrics.SqlRequestStats;
+import ru.practicum.shareit.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(properties = "shareit.sql-metrics.statement-count-threshold=0")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SqlMetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void sqlStatsPublishedPerEndpointTest(CapturedOutput output) throws Exception {
+        User user = User.builder().name("sqlMetrics").email("sql-metrics@mail.ru").build();
+        em.persist(user);
+        em.flush();
+        em.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        mvc.perform(get("/users/{id}", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("shareit.sql.statements")
+                .tags("controller", "UserController", "method", "findById")
+                .summary();
+        assertThat(statements, notNullValue());
+        assertThat(statements.count(), equalTo(1L));
+        assertThat(statements.totalAmount(), equalTo(1.0));
+
+        Timer slowest = meterRegistry.find("shareit.sql.slowest")
+                .tags("controller", "UserController", "method", "findById")
+                .timer();
+        assertThat(slowest, notNullValue());
+        assertThat(slowest.count(), equalTo(1L));
+
+        assertThat(output.getOut(), containsString("(UserController.findById): 1 SQL statements"));
+    }
+
+    @Test
+    public void sqlStatsOfStreamedResponseTest() throws Exception {
+        MvcResult result = mvc.perform(get("/items")
+                        .param("stream", "true")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(SqlRequestStats.current(), nullValue());
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        assertThat(SqlRequestStats.current(), nullValue());
+
+        DistributionSummary statements = meterRegistry.find("shareit.sql.statements")
+                .tags("controller", "ItemController", "method", "streamItemsByUser")
+                .summary();
+        assertThat(statements, notNullValue());
+        assertThat(statements.count(), equalTo(1L));
+        // запрос вещей выполняется в потоке, пишущем ответ
+        assertThat(statements.totalAmount(), greaterThanOrEqualTo(1.0));
+    }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -42,9 +43,12 @@ public class UserControllerTest {
 
     @Test
     public void findAllTest() throws Exception {
-        when(userService.findAll())
+        when(userService.findAll(eq("te"), eq(5L), eq(3)))
                 .thenReturn(createUserDtoList());
         mvc.perform(get("/users")
+                        .param("text", "te")
+                        .param("afterId", "5")
+                        .param("size", "3")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding(StandardCharsets.UTF_8))
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingSave;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemViewOwner;
+import ru.practicum.shareit.metrics.SqlRequestStats;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Число SQL-запросов на чтение бронирований не зависит от связей вещи: бронирующий, вещь, владелец,
+ * запрос и автор запроса выбираются одним запросом, а сериализация ответа не догружает связи.
+ * Выражения считаются на уровне DataSource (SqlRequestStats), поэтому учитываются и запросы
+ * через JdbcTemplate, которые не видит статистика Hibernate.
+ */
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingQueryCountTest {
+
+    private final EntityManager em;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking pastBooking;
+    private Booking futureBooking;
+    private SqlRequestStats stats;
+
+    @BeforeEach
+    public void setUp() {
+        owner = User.builder().name("queryCountOwner").email("query-count-owner@mail.ru").build();
+        booker = User.builder().name("queryCountBooker").email("query-count-booker@mail.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        ItemRequest request = ItemRequest.builder().description("request").userId(booker).build();
+        em.persist(request);
+        item = Item.builder()
+                .user(owner)
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .request(request)
+                .build();
+        em.persist(item);
+        pastBooking = createBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), BookingStatus.APPROVED);
+        futureBooking = createBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.WAITING);
+        em.flush();
+        em.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        stats = SqlRequestStats.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SqlRequestStats.finish();
+    }
+
+    @Test
+    public void findOneQueryCountTest() throws JsonProcessingException {
+        BookingViewDTO booking = bookingService.findOne(pastBooking.getBookingId(), booker.getId());
+        objectMapper.writeValueAsString(booking);
+
+        // пользователь из заголовка + бронирование со связями
+        assertThat(stats.getStatementCount(), equalTo(2));
+    }
+
+    @Test
+    public void findAllByUserIdQueryCountTest() throws JsonProcessingException {
+        List<BookingViewDTO> bookings = bookingService.findAllByUserId(booker.getId(), null, null, 0, 10);
+        objectMapper.writeValueAsString(bookings);
+
+        assertThat(bookings, hasSize(2));
+        assertThat(stats.getStatementCount(), equalTo(2));
+    }
+
+    @Test
+    public void findAllByUserIdAfterCursorQueryCountTest() throws JsonProcessingException {
+        List<BookingViewDTO> bookings = bookingService.findAllByUserId(
+                booker.getId(), null, pastBooking.getBookingId(), 0, 10);
+        objectMapper.writeValueAsString(bookings);
+
+        assertThat(bookings, hasSize(1));
+        // пользователь + дата начала курсора + страница бронирований
+        assertThat(stats.getStatementCount(), equalTo(3));
+    }
+
+    @Test
+    public void findAllByOwnerIdQueryCountTest() throws JsonProcessingException {
+        List<BookingViewDTO> bookings = bookingService.findAllByOwnerId(owner.getId(), null, null, 0, 10);
+        objectMapper.writeValueAsString(bookings);
+
+        assertThat(bookings, hasSize(2));
+        assertThat(stats.getStatementCount(), equalTo(2));
+    }
+
+    @Test
+    public void approveQueryCountTest() throws JsonProcessingException {
+        Booking booking = bookingService.bookingConfirmationOrRejection(futureBooking.getBookingId(), true, owner.getId());
+        String json = objectMapper.writeValueAsString(booking);
+
+        // пользователь + бронирование со связями + проверка пересечений + update + пересчёт указателей вещи
+        assertThat(stats.getStatementCount(), equalTo(5));
+        assertThat(objectMapper.readTree(json).at("/item/request/userId/email").asText(), equalTo(booker.getEmail()));
+    }
+
+    @Test
+    public void saveQueryCountTest() throws JsonProcessingException {
+        BookingSave bookingSave = new BookingSave();
+        bookingSave.setItemId(item.getItemId());
+        bookingSave.setStart(LocalDateTime.now().plusDays(3));
+        bookingSave.setEnd(LocalDateTime.now().plusDays(4));
+        Booking booking = bookingService.save(bookingSave, booker.getId());
+        em.flush();
+        String json = objectMapper.writeValueAsString(booking);
+
+        // вещь с владельцем, запросом и его автором + проверка пересечений + insert; бронирующий - автор
+        // запроса и берётся из контекста персистентности, сериализация ответа связи не догружает
+        assertThat(stats.getStatementCount(), equalTo(3));
+        assertThat(objectMapper.readTree(json).at("/item/user/email").asText(), equalTo(owner.getEmail()));
+        assertThat(objectMapper.readTree(json).at("/item/request/userId/email").asText(), equalTo(booker.getEmail()));
+    }
+
+    @Test
+    public void findItemByIdQueryCountTest() throws JsonProcessingException {
+        ItemViewOwner itemView = itemService.findById(item.getItemId(), owner.getId());
+        objectMapper.writeValueAsString(itemView);
+
+        // вещь + отзывы + бронирования вещи
+        assertThat(stats.getStatementCount(), equalTo(3));
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = Booking.builder()
+                .user(booker)
+                .item(item)
+                .startDate(start)
+                .endDate(end)
+                .bookingStatus(status)
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+}
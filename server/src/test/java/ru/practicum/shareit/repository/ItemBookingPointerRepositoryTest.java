@@ -0,0 +1,160 @@
+package ru.practicum.shareit.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.ItemBookingPointerSweeper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemViewOwner;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
+
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemBookingPointerRepositoryTest {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemBookingPointerRepository itemBookingPointerRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private LocalDateTime now;
+    private User owner;
+    private Item item;
+    private Booking past;
+    private Booking next;
+    private Booking later;
+
+    @BeforeEach
+    public void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = User.builder().name("pointerOwner").email("pointer-owner@mail.ru").build();
+        User booker = User.builder().name("pointerBooker").email("pointer-booker@mail.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        item = Item.builder().user(owner).name("Item").description("Item").available(true).build();
+        em.persist(item);
+        past = createBooking(booker, now.minusDays(3), BookingStatus.APPROVED);
+        createBooking(booker, now.minusDays(1), BookingStatus.WAITING);
+        next = createBooking(booker, now.plusDays(1), BookingStatus.APPROVED);
+        later = createBooking(booker, now.plusDays(3), BookingStatus.APPROVED);
+        createBooking(booker, now.plusHours(1), BookingStatus.REJECTED);
+        em.flush();
+    }
+
+    @Test
+    public void refreshPicksApprovedBookingsAroundNowTest() {
+        itemBookingPointerRepository.refresh(List.of(item.getItemId()), now);
+
+        Map<String, Object> pointers = pointers();
+        assertThat(pointers.get("last_booking_id"), equalTo(past.getBookingId()));
+        assertThat(pointers.get("next_booking_id"), equalTo(next.getBookingId()));
+        assertThat(itemBookingPointerRepository.lockStarted(now, 10), empty());
+    }
+
+    @Test
+    public void sweepAdvancesPointersWhenNextBookingStartsTest() {
+        itemBookingPointerRepository.refresh(List.of(item.getItemId()), now);
+        LocalDateTime afterNextStart = now.plusDays(2);
+
+        List<Long> started = itemBookingPointerRepository.lockStarted(afterNextStart, 10);
+        itemBookingPointerRepository.refresh(started, afterNextStart);
+
+        assertThat(started, equalTo(List.of(item.getItemId())));
+        assertThat(pointers().get("last_booking_id"), equalTo(next.getBookingId()));
+        assertThat(pointers().get("next_booking_id"), equalTo(later.getBookingId()));
+
+        itemBookingPointerRepository.refresh(List.of(item.getItemId()), now.plusDays(4));
+
+        assertThat(pointers().get("last_booking_id"), equalTo(later.getBookingId()));
+        assertThat(pointers().get("next_booking_id"), nullValue());
+    }
+
+    @Test
+    public void backfillSetsPointersOfNotReadyItemsOnceTest() {
+        ItemBookingPointerSweeper sweeper = new ItemBookingPointerSweeper(itemBookingPointerRepository, transactionTemplate);
+        assertThat(itemBookingPointerRepository.findNotReadyItemIds(10), hasItem(item.getItemId()));
+
+        sweeper.backfill();
+
+        assertThat(itemBookingPointerRepository.findNotReadyItemIds(10), empty());
+        assertThat(pointers().get("last_booking_id"), equalTo(past.getBookingId()));
+        assertThat(pointers().get("next_booking_id"), equalTo(next.getBookingId()));
+
+        jdbcTemplate.update("UPDATE items SET last_booking_id = NULL WHERE item_id = ?", item.getItemId());
+        sweeper.backfill();
+
+        assertThat(pointers().get("last_booking_id"), nullValue());
+    }
+
+    @Test
+    public void ownerListWithStalePointersMatchesTimelineTest() {
+        itemBookingPointerRepository.refresh(List.of(item.getItemId()), now);
+        LocalDateTime afterNextStart = now.plusDays(2);
+
+        ItemViewOwner stale = itemRepository.findAllByUserId(owner.getId(), null, afterNextStart, 10).getFirst();
+        ItemBookingTimeline timeline = new ItemBookingTimeline(bookingRepository.findAllApprovedByItemId(item.getItemId()));
+
+        assertThat(pointers().get("next_booking_id"), equalTo(next.getBookingId()));
+        assertThat(stale.getLastBooking().getBookingId(), equalTo(timeline.last(afterNextStart).getBookingId()));
+        assertThat(stale.getNextBooking().getBookingId(), equalTo(timeline.next(afterNextStart).getBookingId()));
+        assertThat(stale.getLastBooking().getBookingId(), equalTo(next.getBookingId()));
+        assertThat(stale.getNextBooking().getBookingId(), equalTo(later.getBookingId()));
+    }
+
+    @Test
+    public void ownerListBeforeBackfillMatchesTimelineTest() {
+        ItemViewOwner notReady = itemRepository.findAllByUserId(owner.getId(), null, now, 10).getFirst();
+
+        assertThat(itemBookingPointerRepository.findNotReadyItemIds(10), hasItem(item.getItemId()));
+        assertThat(pointers().get("last_booking_id"), nullValue());
+        assertThat(notReady.getLastBooking().getBookingId(), equalTo(past.getBookingId()));
+        assertThat(notReady.getNextBooking().getBookingId(), equalTo(next.getBookingId()));
+    }
+
+    private Map<String, Object> pointers() {
+        return jdbcTemplate.queryForMap(
+                "SELECT last_booking_id, next_booking_id FROM items WHERE item_id = ?", item.getItemId());
+    }
+
+    private Booking createBooking(User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = Booking.builder()
+                .user(booker)
+                .item(item)
+                .startDate(start)
+                .endDate(start.plusHours(2))
+                .bookingStatus(status)
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * schema.sql выполняется при каждом запуске, поэтому повторное применение к уже созданной схеме
+ * не должно ни падать, ни менять набор индексов и данные. DDL в H2 фиксирует транзакцию,
+ * поэтому тест не транзакционный и удаляет свои строки сам.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SchemaIdempotencyTest {
+
+    private static final String INDEXES = "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES " +
+            "WHERE TABLE_SCHEMA = 'PUBLIC' ORDER BY INDEX_NAME";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    public void reapplySchemaTest() {
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (1, 'user', 'user@mail.ru')");
+        List<String> indexes = jdbcTemplate.queryForList(INDEXES, String.class);
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.execute(dataSource);
+        populator.execute(dataSource);
+
+        assertThat(jdbcTemplate.queryForList(INDEXES, String.class), equalTo(indexes));
+        assertThat(indexes, hasItems("IDX_ITEMS_USER_ID", "IDX_BOOKINGS_ITEM_STATUS_START", "IDX_ITEMS_NEXT_BOOKING_START"));
+        assertThat(indexes, not(hasItem("IDX_BOOKINGS_ITEM_START")));
+        assertThat(indexes, not(hasItem("IDX_BOOKINGS_ITEM_END")));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class), equalTo(1));
+    }
+}
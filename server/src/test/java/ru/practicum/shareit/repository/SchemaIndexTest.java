@@ -0,0 +1,148 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Проверяет, что горячие запросы репозиториев используют вторичные индексы из schema.sql,
+ * а не полный просмотр таблиц. Планировщик H2 не учитывает сортировку при выборе индекса,
+ * поэтому для запросов с ORDER BY проверяется только отсутствие tableScan.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SchemaIndexTest {
+
+    private static final int USERS = 20;
+    private static final int ITEMS_PER_USER = 20;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "user" + userId, "user" + userId + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        long itemId = 1;
+        for (long userId = 1; userId <= USERS; userId++) {
+            requests.add(new Object[]{userId, "request" + userId, userId});
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.add(new Object[]{itemId, userId, "item" + itemId, "description", true, i == 0 ? userId : null});
+                itemId++;
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, user_id) VALUES (?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO items (item_id, user_id, name, description, available, request_id) VALUES (?, ?, ?, ?, ?, ?)",
+                items
+        );
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 1;
+        for (long item = 1; item < itemId; item++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_ITEM / 2);
+                bookings.add(new Object[]{
+                        bookingId++,
+                        Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(1)),
+                        (item + i) % USERS + 1,
+                        item,
+                        i % 2 == 0 ? "APPROVED" : "WAITING"
+                });
+            }
+            comments.add(new Object[]{item, "comment", item % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bookings (booking_id, start_date, end_date, user_id, item_id, booking_status) VALUES (?, ?, ?, ?, ?, ?)",
+                bookings
+        );
+        jdbcTemplate.batchUpdate("INSERT INTO comments (item_id, text, user_id) VALUES (?, ?, ?)", comments);
+    }
+
+    @Test
+    public void lastAndNextBookingUseItemStatusStartIndexTest() {
+        String plan = explain("SELECT MAX(b.start_date) FROM bookings b " +
+                "WHERE b.item_id = 7 AND b.booking_status = 'APPROVED' AND b.start_date < CURRENT_TIMESTAMP");
+        assertThat(plan, containsString("IDX_BOOKINGS_ITEM_STATUS_START"));
+    }
+
+    @Test
+    public void bookerListAvoidsTableScanTest() {
+        String plan = explain("SELECT * FROM bookings b WHERE b.user_id = 3 ORDER BY b.start_date, b.booking_id");
+        assertThat(plan, not(containsString("tableScan")));
+    }
+
+    @Test
+    public void bookerListByStatusAvoidsTableScanTest() {
+        String plan = explain("SELECT * FROM bookings b WHERE b.user_id = 3 AND b.booking_status = 'WAITING' " +
+                "ORDER BY b.start_date, b.booking_id");
+        assertThat(plan, not(containsString("tableScan")));
+    }
+
+    @Test
+    public void bookerPastListUsesUserEndIndexTest() {
+        String plan = explain("SELECT * FROM bookings b WHERE b.user_id = 3 AND b.end_date <= CURRENT_TIMESTAMP " +
+                "ORDER BY b.start_date, b.booking_id");
+        assertThat(plan, containsString("IDX_BOOKINGS_USER_END"));
+    }
+
+    @Test
+    public void ownerListByStateAvoidsTableScanTest() {
+        for (String condition : List.of(
+                "b.start_date > CURRENT_TIMESTAMP",
+                "b.end_date <= CURRENT_TIMESTAMP",
+                "b.start_date <= CURRENT_TIMESTAMP AND b.end_date > CURRENT_TIMESTAMP",
+                "b.booking_status = 'WAITING'")) {
+            String plan = explain("SELECT b.* FROM bookings b JOIN items i ON i.item_id = b.item_id " +
+                    "WHERE i.user_id = 3 AND " + condition + " ORDER BY b.start_date, b.booking_id");
+            assertThat(plan, not(containsString("tableScan")));
+        }
+    }
+
+    @Test
+    public void completedBookingCheckUsesUserItemEndIndexTest() {
+        String plan = explain("SELECT * FROM bookings b WHERE b.user_id = 3 AND b.item_id = 7 " +
+                "AND b.end_date < CURRENT_TIMESTAMP");
+        assertThat(plan, containsString("IDX_BOOKINGS_USER_ITEM_END"));
+    }
+
+    @Test
+    public void ownerAndRequestQueriesAvoidTableScanTest() {
+        assertThat(explain("SELECT * FROM items i WHERE i.user_id = 3"), not(containsString("tableScan")));
+        assertThat(explain("SELECT * FROM items i WHERE i.request_id = 3"), not(containsString("tableScan")));
+        assertThat(explain("SELECT * FROM comments c WHERE c.item_id = 7"), not(containsString("tableScan")));
+        assertThat(explain("SELECT * FROM requests r WHERE r.user_id = 3 ORDER BY r.create_date"),
+                not(containsString("tableScan")));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
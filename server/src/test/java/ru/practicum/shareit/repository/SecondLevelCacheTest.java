@@ -0,0 +1,90 @@
+package ru.practicum.shareit.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestsRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Повторные поиски User, Item и ItemRequest по id в разных сессиях обслуживаются
+ * кэшем второго уровня и не доходят до базы данных.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SecondLevelCacheTest {
+
+    private static final int LOOKUPS = 3;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestsRepository itemRequestsRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private ItemRequest itemRequest;
+    private Item item;
+
+    @AfterEach
+    public void cleanDatabase() {
+        if (item != null) {
+            itemRepository.deleteById(item.getItemId());
+        }
+        if (itemRequest != null) {
+            itemRequestsRepository.deleteById(itemRequest.getId());
+        }
+        if (user != null) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    public void repeatedFindByIdHitsSecondLevelCacheTest() {
+        user = userRepository.save(User.builder().name("cached").email("cached@mail.ru").build());
+        itemRequest = itemRequestsRepository.save(ItemRequest.builder().description("request").userId(user).build());
+        item = itemRepository.save(Item.builder()
+                .user(user)
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .request(itemRequest)
+                .build());
+        userRepository.findById(user.getId());
+        itemRequestsRepository.findById(itemRequest.getId());
+        itemRepository.findById(item.getItemId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertThat(userRepository.findById(user.getId()).orElseThrow().getName(), equalTo("cached"));
+            assertThat(itemRequestsRepository.findById(itemRequest.getId()).orElseThrow().getDescription(),
+                    equalTo("request"));
+            assertThat(itemRepository.findById(item.getItemId()).orElseThrow().getName(), equalTo("Item"));
+        }
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getSecondLevelCacheMissCount(), equalTo(0L));
+        // Item.user, Item.request и ItemRequest.userId ленивые и при поиске по id не загружаются
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo((long) LOOKUPS));
+        assertThat(statistics.getDomainDataRegionStatistics("requests").getHitCount(), equalTo((long) LOOKUPS));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), equalTo((long) LOOKUPS));
+    }
+}
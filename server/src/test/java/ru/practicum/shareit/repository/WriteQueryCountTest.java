@@ -0,0 +1,164 @@
+package ru.practicum.shareit.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdate;
+import ru.practicum.shareit.item.dto.SaveComment;
+import ru.practicum.shareit.metrics.SqlRequestStats;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserUpdate;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Операции записи читают каждую строку не больше одного раза: число SQL-запросов фиксировано
+ * и не включает повторных select той же вещи или пользователя. Ответ сериализуется в пределах
+ * подсчёта, поэтому связи, догружаемые при выдаче, тоже учитываются. Выражения считаются
+ * на уровне DataSource (SqlRequestStats), включая запросы через JdbcTemplate.
+ */
+@Transactional
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class WriteQueryCountTest {
+
+    private final EntityManager em;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+    private SqlRequestStats stats;
+
+    @BeforeEach
+    public void setUp() {
+        owner = User.builder().name("writeCountOwner").email("write-count-owner@mail.ru").build();
+        booker = User.builder().name("writeCountBooker").email("write-count-booker@mail.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        request = ItemRequest.builder().description("request").userId(booker).build();
+        em.persist(request);
+        item = Item.builder()
+                .user(owner)
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .build();
+        em.persist(item);
+        em.persist(Booking.builder()
+                .user(booker)
+                .item(item)
+                .startDate(LocalDateTime.now().minusDays(2))
+                .endDate(LocalDateTime.now().minusDays(1))
+                .bookingStatus(BookingStatus.APPROVED)
+                .build());
+        em.persist(Comment.builder().text("first").user(booker).item(item).build());
+        em.flush();
+        em.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        stats = SqlRequestStats.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SqlRequestStats.finish();
+    }
+
+    @Test
+    public void updateUserQueryCountTest() {
+        userService.update(new UserUpdate("renamed", null), owner.getId());
+        em.flush();
+
+        // пользователь + вещи с его комментариями (сброс кэша представлений) + update
+        assertThat(stats.getStatementCount(), equalTo(3));
+    }
+
+    @Test
+    public void updateUserEmailQueryCountTest() {
+        userService.update(new UserUpdate(null, "write-count-renamed@mail.ru"), owner.getId());
+        em.flush();
+
+        // имя не меняется, поэтому кэш представлений не сбрасывается: пользователь + update
+        assertThat(stats.getStatementCount(), equalTo(2));
+    }
+
+    @Test
+    public void saveItemQueryCountTest() throws JsonProcessingException {
+        Item saved = itemService.save(
+                ItemDto.builder().name("New").description("New").available(true).build(), owner.getId());
+        em.flush();
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(saved));
+
+        // владелец + insert (id берётся из уже выделенного блока последовательности)
+        assertThat(stats.getStatementCount(), equalTo(2));
+        assertThat(json.at("/user/email").asText(), equalTo(owner.getEmail()));
+    }
+
+    @Test
+    public void saveItemWithRequestQueryCountTest() throws JsonProcessingException {
+        Item saved = itemService.save(ItemDto.builder()
+                .name("New")
+                .description("New")
+                .available(true)
+                .requestId(request.getId())
+                .build(), owner.getId());
+        em.flush();
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(saved));
+
+        // владелец + запрос с автором + insert
+        assertThat(stats.getStatementCount(), equalTo(3));
+        assertThat(json.at("/request/userId/email").asText(), equalTo(booker.getEmail()));
+    }
+
+    @Test
+    public void updateItemQueryCountTest() throws JsonProcessingException {
+        Item updated = itemService.update(new ItemUpdate("Renamed", null, null), item.getItemId(), owner.getId());
+        em.flush();
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(updated));
+
+        // вещь с владельцем + update; владелец для ответа не догружается отдельным select
+        assertThat(stats.getStatementCount(), equalTo(2));
+        assertThat(json.at("/user/email").asText(), equalTo(owner.getEmail()));
+        assertThat(json.at("/name").asText(), equalTo("Renamed"));
+    }
+
+    @Test
+    public void saveCommentQueryCountTest() {
+        CommentView comment = itemService.save(new SaveComment("second"), item.getItemId(), booker.getId());
+        em.flush();
+
+        assertThat(comment.getAuthorName(), equalTo(booker.getName()));
+        // EXISTS завершённого бронирования + автор (имя для ответа) + insert
+        assertThat(stats.getStatementCount(), equalTo(3));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Одновременное подтверждение пересекающихся бронирований одной вещи: подтверждается ровно одно.
+ * Тест не транзакционный, чтобы каждый поток видел зафиксированные данные других потоков.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BaseServiceTest baseServiceTest = new BaseServiceTest();
+
+    @BeforeEach
+    @AfterEach
+    public void cleanDatabase() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM requests");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    public void concurrentApprovalOfOverlappingBookingsTest() throws Exception {
+        User owner = userService.save(baseServiceTest.createUser("owner", "concurrency-owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "concurrency-booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Item", "Item", true), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // Все интервалы пересекаются между собой
+            bookings.add(bookingService.save(
+                    baseServiceTest.createBookingSave(item, start.plusHours(i), start.plusDays(1).plusHours(i)),
+                    booker.getId()));
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger overlapped = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Booking booking : bookings) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, owner.getId());
+                        approved.incrementAndGet();
+                    } catch (BookingOverlapException e) {
+                        overlapped.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(approved.get(), equalTo(1));
+        assertThat(overlapped.get(), equalTo(THREADS - 1));
+        Integer approvedRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE item_id = ? AND booking_status = 'APPROVED'",
+                Integer.class, item.getItemId());
+        assertThat(approvedRows, equalTo(1));
+    }
+}
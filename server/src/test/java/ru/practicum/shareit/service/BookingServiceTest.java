@@ -14,9 +14,13 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingSave;
 import ru.practicum.shareit.booking.dto.BookingViewDTO;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationDataException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -30,6 +34,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @ActiveProfiles("test")
@@ -60,6 +65,9 @@ public class BookingServiceTest {
         em.createNativeQuery("ALTER TABLE users ALTER COLUMN user_id RESTART WITH 1").executeUpdate();
         em.createNativeQuery("ALTER TABLE items ALTER COLUMN item_id RESTART WITH 1").executeUpdate();
         em.createNativeQuery("ALTER TABLE bookings ALTER COLUMN booking_id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER SEQUENCE users_seq RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER SEQUENCE items_seq RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER SEQUENCE bookings_seq RESTART WITH 1").executeUpdate();
 
         em.flush();
         em.clear();
@@ -120,11 +128,85 @@ public class BookingServiceTest {
         bookingService.save(booking4, booking1.getUser().getId());
         List<BookingViewDTO> bookingViewDTOList = bookingService.findAllByUserId(
                 booking1.getUser().getId(),
-                null
+                null,
+                null,
+                0,
+                10
         );
         assertThat(bookingViewDTOList.size(), equalTo(4));
     }
 
+    @Test
+    public void findAllByUserIdPagedTest() {
+        User user = userService.save(baseServiceTest.createUser("admin", "test@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), user.getId());
+        for (int day = 1; day <= 5; day++) {
+            bookingService.save(baseServiceTest.createBookingSave(
+                    item,
+                    LocalDateTime.of(2000, 1, day, 1, 1),
+                    LocalDateTime.of(2000, 1, day, 2, 2)
+            ), user.getId());
+        }
+
+        List<BookingViewDTO> firstPage = bookingService.findAllByUserId(user.getId(), null, null, 0, 2);
+        List<BookingViewDTO> secondPage = bookingService.findAllByUserId(user.getId(), null, null, 2, 2);
+        List<BookingViewDTO> afterCursor = bookingService.findAllByUserId(
+                user.getId(),
+                null,
+                firstPage.getLast().getBookingId(),
+                0,
+                2
+        );
+
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(firstPage.getFirst().getStartDate(), equalTo(LocalDateTime.of(2000, 1, 1, 1, 1)));
+        assertThat(secondPage.size(), equalTo(2));
+        assertThat(secondPage.getFirst().getStartDate(), equalTo(LocalDateTime.of(2000, 1, 3, 1, 1)));
+        assertThat(afterCursor.size(), equalTo(2));
+        assertThat(afterCursor.getFirst().getBookingId(), equalTo(secondPage.getFirst().getBookingId()));
+        assertThat(afterCursor.getLast().getBookingId(), equalTo(secondPage.getLast().getBookingId()));
+    }
+
+    @Test
+    public void findAllByUserIdWithForeignCursorTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        User stranger = userService.save(baseServiceTest.createUser("stranger", "stranger@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+        Booking booking = bookingService.save(baseServiceTest.createBookingSave(
+                item,
+                LocalDateTime.of(2000, 1, 1, 1, 1),
+                LocalDateTime.of(2000, 1, 1, 2, 2)
+        ), booker.getId());
+
+        assertThat(bookingService.findAllByUserId(booker.getId(), null, booking.getBookingId(), 0, 2), empty());
+        assertThrows(NotFoundException.class,
+                () -> bookingService.findAllByUserId(stranger.getId(), null, booking.getBookingId(), 0, 2));
+        assertThrows(NotFoundException.class,
+                () -> bookingService.findAllByOwnerId(booker.getId(), null, booking.getBookingId(), 0, 2));
+    }
+
+    @Test
+    public void findAllByUserIdUnalignedOffsetTest() {
+        User user = userService.save(baseServiceTest.createUser("admin", "test@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), user.getId());
+        for (int day = 1; day <= 5; day++) {
+            bookingService.save(baseServiceTest.createBookingSave(
+                    item,
+                    LocalDateTime.of(2000, 1, day, 1, 1),
+                    LocalDateTime.of(2000, 1, day, 2, 2)
+            ), user.getId());
+        }
+
+        List<BookingViewDTO> page = bookingService.findAllByUserId(user.getId(), null, null, 3, 2);
+
+        assertThat(page.size(), equalTo(2));
+        assertThat(page.getFirst().getStartDate(), equalTo(LocalDateTime.of(2000, 1, 4, 1, 1)));
+        assertThat(page.getLast().getStartDate(), equalTo(LocalDateTime.of(2000, 1, 5, 1, 1)));
+        assertThrows(ValidationDataException.class,
+                () -> bookingService.findAllByUserId(user.getId(), null, null, 0, 0));
+    }
+
     @Test
     public void findAllByOwnerId() {
         Booking booking1 = saveBooking();
@@ -150,10 +232,68 @@ public class BookingServiceTest {
         bookingService.save(booking4, booking1.getUser().getId());
         List<BookingViewDTO> bookingViewDTOList = bookingService.findAllByOwnerId(
                 itemSave1.getUser().getId(),
-                null);
+                null,
+                null,
+                0,
+                10);
         assertThat(bookingViewDTOList.size(), equalTo(4));
     }
 
+    @Test
+    public void findAllByOwnerIdWithoutBookingsTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+
+        assertThat(bookingService.findAllByOwnerId(owner.getId(), null, null, 0, 10), empty());
+        assertThrows(NotFoundException.class,
+                () -> bookingService.findAllByOwnerId(owner.getId() + 1, null, null, 0, 10));
+    }
+
+    @Test
+    public void findAllByStateTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User otherOwner = userService.save(baseServiceTest.createUser("other", "other@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+        Item otherItem = itemService.save(baseServiceTest.createItemDto("Other", "Other", true), otherOwner.getId());
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.minusDays(3), now.minusDays(2)), booker.getId());
+        Booking current = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.minusDays(1), now.plusDays(1)), booker.getId());
+        Booking future = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.plusDays(2), now.plusDays(3)), booker.getId());
+        Booking rejected = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.plusDays(4), now.plusDays(5)), booker.getId());
+        bookingService.save(
+                baseServiceTest.createBookingSave(otherItem, now.plusDays(2), now.plusDays(3)), booker.getId());
+        bookingService.bookingConfirmationOrRejection(past.getBookingId(), true, owner.getId());
+        bookingService.bookingConfirmationOrRejection(current.getBookingId(), true, owner.getId());
+        bookingService.bookingConfirmationOrRejection(rejected.getBookingId(), false, owner.getId());
+
+        assertThat(bookingIds(bookingService.findAllByUserId(booker.getId(), BookingState.PAST, null, 0, 10)),
+                equalTo(List.of(past.getBookingId())));
+        assertThat(bookingIds(bookingService.findAllByUserId(booker.getId(), BookingState.CURRENT, null, 0, 10)),
+                equalTo(List.of(current.getBookingId())));
+        assertThat(bookingService.findAllByUserId(booker.getId(), BookingState.FUTURE, null, 0, 10).size(),
+                equalTo(3));
+        // Владелец видит только бронирования своих вещей, а не все бронирования с этим статусом
+        assertThat(bookingIds(bookingService.findAllByOwnerId(owner.getId(), BookingState.WAITING, null, 0, 10)),
+                equalTo(List.of(future.getBookingId())));
+        assertThat(bookingIds(bookingService.findAllByOwnerId(owner.getId(), BookingState.REJECTED, null, 0, 10)),
+                equalTo(List.of(rejected.getBookingId())));
+        assertThat(bookingIds(bookingService.findAllByOwnerId(owner.getId(), BookingState.ALL, null, 2, 2)),
+                equalTo(List.of(future.getBookingId(), rejected.getBookingId())));
+        assertThat(bookingIds(bookingService.findAllByOwnerId(owner.getId(), BookingState.ALL, current.getBookingId(), 0, 2)),
+                equalTo(List.of(future.getBookingId(), rejected.getBookingId())));
+    }
+
+    private static List<Long> bookingIds(List<BookingViewDTO> bookings) {
+        return bookings.stream()
+                .map(BookingViewDTO::getBookingId)
+                .toList();
+    }
+
     @Test
     public void deleteByUserId() {
         User user = userService.save(baseServiceTest.createUser("Test", "test@mail.ru"));
@@ -183,6 +323,44 @@ public class BookingServiceTest {
         assertThat(bookingList, empty());
     }
 
+    @Test
+    public void saveOverlappingApprovedBookingTest() {
+        Booking booking = saveBooking();
+        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, booking.getUser().getId());
+        BookingSave overlapping = baseServiceTest.createBookingSave(
+                booking.getItem(),
+                LocalDateTime.of(2000, 11, 1, 2, 2),
+                LocalDateTime.of(2000, 12, 1, 2, 2)
+        );
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class,
+                () -> bookingService.save(overlapping, booking.getUser().getId()));
+        assertThat(exception, notNullValue());
+
+        BookingSave adjacent = baseServiceTest.createBookingSave(
+                booking.getItem(),
+                LocalDateTime.of(2000, 11, 2, 2, 2),
+                LocalDateTime.of(2000, 12, 2, 2, 2)
+        );
+        assertThat(bookingService.save(adjacent, booking.getUser().getId()), notNullValue());
+    }
+
+    @Test
+    public void approveOverlappingBookingTest() {
+        Booking booking = saveBooking();
+        Booking overlapping = bookingService.save(baseServiceTest.createBookingSave(
+                booking.getItem(),
+                LocalDateTime.of(2000, 10, 20, 2, 2),
+                LocalDateTime.of(2000, 12, 1, 2, 2)
+        ), booking.getUser().getId());
+        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, booking.getUser().getId());
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.bookingConfirmationOrRejection(
+                overlapping.getBookingId(), true, booking.getUser().getId()));
+        Booking rejected = bookingService.bookingConfirmationOrRejection(
+                overlapping.getBookingId(), false, booking.getUser().getId());
+        assertThat(rejected.getBookingStatus(), equalTo(BookingStatus.REJECTED));
+    }
+
     private Booking saveBooking() {
         User user = userService.save(baseServiceTest.createUser("admin", "test@mail.ru"));
         Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), user.getId());
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingViewDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ItemBookingTimelineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2000, 10, 10, 10, 0);
+
+    @Test
+    public void emptyTimelineTest() {
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of());
+
+        assertThat(timeline.last(NOW), nullValue());
+        assertThat(timeline.next(NOW), nullValue());
+    }
+
+    @Test
+    public void lastAndNextTest() {
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of(
+                booking(1L, NOW.minusDays(3)),
+                booking(2L, NOW.minusDays(1)),
+                booking(3L, NOW.plusDays(1)),
+                booking(4L, NOW.plusDays(3))
+        ));
+
+        assertThat(timeline.last(NOW).getBookingId(), equalTo(2L));
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(3L));
+    }
+
+    @Test
+    public void equalStartPrefersSmallerIdTest() {
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of(
+                booking(7L, NOW.minusDays(1)),
+                booking(5L, NOW.minusDays(1)),
+                booking(8L, NOW.plusDays(1)),
+                booking(6L, NOW.plusDays(1))
+        ));
+
+        assertThat(timeline.last(NOW).getBookingId(), equalTo(5L));
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(6L));
+    }
+
+    @Test
+    public void startEqualToNowIsNeitherLastNorNextTest() {
+        // Те же строгие сравнения, что и в ItemBookingPointerRepository: start_date < now и start_date > now
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of(
+                booking(1L, NOW.minusDays(1)),
+                booking(2L, NOW),
+                booking(3L, NOW.plusDays(1))
+        ));
+
+        assertThat(timeline.last(NOW).getBookingId(), equalTo(1L));
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(3L));
+
+        ItemBookingTimeline onlyNow = new ItemBookingTimeline(List.of(booking(2L, NOW)));
+        assertThat(onlyNow.last(NOW), nullValue());
+        assertThat(onlyNow.next(NOW), nullValue());
+    }
+
+    @Test
+    public void putAndRemoveTest() {
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of(booking(1L, NOW.plusDays(2))));
+
+        timeline.put(booking(2L, NOW.plusDays(1)));
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(2L));
+
+        // Повторный put того же бронирования с новой датой переносит его, а не дублирует
+        timeline.put(booking(2L, NOW.plusDays(3)));
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(1L));
+
+        timeline.remove(1L);
+        assertThat(timeline.next(NOW).getBookingId(), equalTo(2L));
+        timeline.remove(2L);
+        timeline.remove(2L);
+        assertThat(timeline.next(NOW), nullValue());
+    }
+
+    private static BookingViewDTO booking(long bookingId, LocalDateTime start) {
+        return new BookingViewDTO(bookingId, 1L, 1L, "booker", start, start.plusHours(1), BookingStatus.APPROVED);
+    }
+}
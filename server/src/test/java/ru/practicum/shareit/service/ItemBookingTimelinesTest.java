@@ -0,0 +1,83 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemBookingTimeline;
+import ru.practicum.shareit.booking.ItemBookingTimelines;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Подтверждение и отклонение вне транзакции меняют закэшированную шкалу на месте, без сброса кэша.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemBookingTimelinesTest {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemBookingTimelines itemBookingTimelines;
+    private final BaseServiceTest baseServiceTest = new BaseServiceTest();
+
+    @BeforeEach
+    @AfterEach
+    public void cleanDatabase() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM requests");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    public void approveAndRejectUpdateCachedTimelineTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "timelines-owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "timelines-booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Item", "Item", true), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking later = bookingService.save(
+                baseServiceTest.createBookingSave(item, start.plusDays(2), start.plusDays(3)), booker.getId());
+        Booking earlier = bookingService.save(
+                baseServiceTest.createBookingSave(item, start, start.plusDays(1)), booker.getId());
+
+        ItemBookingTimeline timeline = itemBookingTimelines.get(item.getItemId());
+        assertThat(timeline.next(LocalDateTime.now()), nullValue());
+
+        bookingService.bookingConfirmationOrRejection(later.getBookingId(), true, owner.getId());
+        assertThat(itemBookingTimelines.get(item.getItemId()), sameInstance(timeline));
+        assertThat(timeline.next(LocalDateTime.now()).getBookingId(), equalTo(later.getBookingId()));
+        assertThat(timeline.next(LocalDateTime.now()).getUser().getName(), equalTo("booker"));
+
+        bookingService.bookingConfirmationOrRejection(earlier.getBookingId(), true, owner.getId());
+        assertThat(timeline.next(LocalDateTime.now()).getBookingId(), equalTo(earlier.getBookingId()));
+        assertThat(itemService.findById(item.getItemId(), owner.getId()).getNextBooking().getBookingId(),
+                equalTo(earlier.getBookingId()));
+
+        bookingService.bookingConfirmationOrRejection(earlier.getBookingId(), false, owner.getId());
+        assertThat(itemBookingTimelines.get(item.getItemId()), sameInstance(timeline));
+        assertThat(timeline.next(LocalDateTime.now()).getBookingId(), equalTo(later.getBookingId()));
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestsService;
 import ru.practicum.shareit.request.dto.ItemRequestViewDto;
@@ -21,6 +23,7 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -32,6 +35,7 @@ public class ItemRequestServiceImplTest {
     private final ItemRequestsService itemRequestsService;
     private final BaseServiceTest baseServiceTest = new BaseServiceTest();
     private final EntityManager em;
+    private final ItemService itemService;
     @Autowired
     private UserService userService;
 
@@ -77,11 +81,42 @@ public class ItemRequestServiceImplTest {
         itemRequestsService.save(req2);
         itemRequestsService.save(req3);
         itemRequestsService.save(req4);
-        List<ItemRequestViewDto> itemRequestViewDtoList = itemRequestsService.findAll();
+        List<ItemRequestViewDto> itemRequestViewDtoList = itemRequestsService.findAll(0, 10);
         assertThat(itemRequestViewDtoList, notNullValue());
         assertThat(itemRequestViewDtoList.size(), equalTo(4));
     }
 
+    @Test
+    public void findAllPagedWithResponsesTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        ItemRequest request1 = itemRequestsService.save(new SaveItemRequestDto(user.getId(), "Test1"));
+        ItemRequest request2 = itemRequestsService.save(new SaveItemRequestDto(user.getId(), "Test2"));
+        itemRequestsService.save(new SaveItemRequestDto(user.getId(), "Test3"));
+        ItemDto itemDto1 = baseServiceTest.createItemDto("Item1", "Test", true);
+        itemDto1.setRequestId(request1.getId());
+        ItemDto itemDto2 = baseServiceTest.createItemDto("Item2", "Test", true);
+        itemDto2.setRequestId(request2.getId());
+        ItemDto itemDto3 = baseServiceTest.createItemDto("Item3", "Test", true);
+        itemDto3.setRequestId(request2.getId());
+        itemService.save(itemDto1, owner.getId());
+        itemService.save(itemDto2, owner.getId());
+        itemService.save(itemDto3, owner.getId());
+
+        List<ItemRequestViewDto> firstPage = itemRequestsService.findAll(0, 2);
+        List<ItemRequestViewDto> secondPage = itemRequestsService.findAll(2, 2);
+        List<ItemRequestViewDto> unalignedPage = itemRequestsService.findAll(1, 2);
+
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(firstPage.get(0).getRequestId(), equalTo(request1.getId()));
+        assertThat(firstPage.get(0).getResponseViewDtoList().size(), equalTo(1));
+        assertThat(firstPage.get(1).getResponseViewDtoList().size(), equalTo(2));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.getFirst().getResponseViewDtoList(), empty());
+        assertThat(unalignedPage.size(), equalTo(2));
+        assertThat(unalignedPage.get(0).getRequestId(), equalTo(request2.getId()));
+    }
+
     @Test
     public void findByIdTest() {
         User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
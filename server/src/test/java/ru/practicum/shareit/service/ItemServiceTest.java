@@ -9,11 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingSave;
 import ru.practicum.shareit.exception.AccessRightException;
 import ru.practicum.shareit.exception.NotCompletedBooking;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationDataException;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemService;
@@ -23,10 +25,12 @@ import ru.practicum.shareit.request.ItemRequestsService;
 import ru.practicum.shareit.request.dto.SaveItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserUpdate;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -88,6 +92,61 @@ public class ItemServiceTest {
         assertThat(item.getAvailable(), equalTo(item.getAvailable()));
     }
 
+    @Test
+    public void saveAllItemsTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User requester = userService.save(baseServiceTest.createUser("requester", "requester@mail.ru"));
+        ItemRequest itemRequest = itemRequestsService.save(new SaveItemRequestDto(requester.getId(), "test"));
+        ItemDto withRequest = baseServiceTest.createItemDto("Item2", "Test", true);
+        withRequest.setRequestId(itemRequest.getId());
+        ItemDto unknownRequest = baseServiceTest.createItemDto("Item3", "Test", true);
+        unknownRequest.setRequestId(itemRequest.getId() + 100);
+
+        List<ItemBatchRowResult> results = itemService.saveAll(List.of(
+                baseServiceTest.createItemDto("Item1", "Test", true),
+                withRequest,
+                unknownRequest,
+                baseServiceTest.createItemDto(" ", "Test", true),
+                baseServiceTest.createItemDto("Item5", "Test", null)
+        ), owner.getId());
+
+        assertThat(results.size(), equalTo(5));
+        assertThat(results.get(0).getError(), equalTo(null));
+        assertThat(results.get(1).getError(), equalTo(null));
+        assertThat(results.get(2).getError(), equalTo("ItemRequest with id " + (itemRequest.getId() + 100) + " not found"));
+        assertThat(results.get(3).getError(), equalTo("Name is blank"));
+        assertThat(results.get(4).getError(), equalTo("Available is null"));
+        Item saved = em.find(Item.class, results.get(1).getId());
+        assertThat(saved.getName(), equalTo("Item2"));
+        assertThat(saved.getUser().getId(), equalTo(owner.getId()));
+        assertThat(saved.getRequest().getId(), equalTo(itemRequest.getId()));
+        assertThat(itemService.findAllByUserId(owner.getId(), null, 10).size(), equalTo(2));
+    }
+
+    @Test
+    public void saveAllItemsWithNullAndTooLongRowsTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        List<ItemDto> itemDtos = new ArrayList<>();
+        itemDtos.add(baseServiceTest.createItemDto("Item1", "Test", true));
+        itemDtos.add(null);
+        itemDtos.add(baseServiceTest.createItemDto("x".repeat(256), "Test", true));
+        itemDtos.add(baseServiceTest.createItemDto("x".repeat(255), "Test", true));
+
+        List<ItemBatchRowResult> results = itemService.saveAll(itemDtos, owner.getId());
+
+        assertThat(results.get(0).getError(), equalTo(null));
+        assertThat(results.get(1).getError(), equalTo("Item is null"));
+        assertThat(results.get(2).getError(), equalTo("Name is longer than 255 characters"));
+        assertThat(results.get(3).getError(), equalTo(null));
+        assertThat(itemService.findAllByUserId(owner.getId(), null, 10).size(), equalTo(2));
+    }
+
+    @Test
+    public void saveAllItemsWithUnknownOwnerTest() {
+        assertThrows(NotFoundException.class, () -> itemService.saveAll(
+                List.of(baseServiceTest.createItemDto("Item", "Test", true)), 1000L));
+    }
+
     @Test
     public void saveItemWithBookingTest() {
 
@@ -119,12 +178,14 @@ public class ItemServiceTest {
         bookingSavePast2.setStart(LocalDateTime.now().minusDays(4));
         bookingSavePast2.setEnd(LocalDateTime.now().minusDays(3));
 
-        bookingService.save(bookingSaveFuture, userBooker.getId());
-        bookingService.save(bookingSavePast, userBooker.getId());
+        Booking future = bookingService.save(bookingSaveFuture, userBooker.getId());
+        Booking past = bookingService.save(bookingSavePast, userBooker.getId());
         bookingService.save(bookingSaveFuture2, userBooker.getId());
         bookingService.save(bookingSavePast2, userBooker.getId());
+        bookingService.bookingConfirmationOrRejection(future.getBookingId(), true, user.getId());
+        bookingService.bookingConfirmationOrRejection(past.getBookingId(), true, user.getId());
 
-        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(user.getId());
+        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(user.getId(), null, 10);
         ItemViewOwner itemViewOwner = itemViewOwnerList.getFirst();
 
         assertThat(itemViewOwner, notNullValue());
@@ -172,10 +233,128 @@ public class ItemServiceTest {
         itemService.save(itemDto2, user.getId());
         itemService.save(itemDto3, user.getId());
         itemService.save(itemDto4, user.getId());
-        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(user.getId());
+        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(user.getId(), null, 10);
         assertThat(itemViewOwnerList.size(), equalTo(4));
     }
 
+    @Test
+    public void findAllByUserIdAfterCursorTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        Item item1 = itemService.save(baseServiceTest.createItemDto("Test1", "Test", true), user.getId());
+        Item item2 = itemService.save(baseServiceTest.createItemDto("Test2", "Test", true), user.getId());
+        Item item3 = itemService.save(baseServiceTest.createItemDto("Test3", "Test", true), user.getId());
+
+        List<ItemViewOwner> firstPage = itemService.findAllByUserId(user.getId(), null, 2);
+        List<ItemViewOwner> secondPage = itemService.findAllByUserId(
+                user.getId(), firstPage.getLast().getItemId(), 2);
+
+        assertThat(firstPage.stream().map(ItemViewOwner::getItemId).toList(),
+                equalTo(List.of(item1.getItemId(), item2.getItemId())));
+        assertThat(secondPage.stream().map(ItemViewOwner::getItemId).toList(),
+                equalTo(List.of(item3.getItemId())));
+        assertThrows(ValidationDataException.class, () -> itemService.findAllByUserId(user.getId(), null, 0));
+    }
+
+    @Test
+    public void streamAllByUserIdTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item1 = itemService.save(baseServiceTest.createItemDto("Test1", "Test", true), owner.getId());
+        Item item2 = itemService.save(baseServiceTest.createItemDto("Test2", "Test", true), owner.getId());
+        Booking booking = bookingService.save(baseServiceTest.createBookingSave(
+                item2,
+                LocalDateTime.of(2000, 10, 1, 1, 1),
+                LocalDateTime.of(2000, 10, 1, 1, 2)
+        ), booker.getId());
+        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, owner.getId());
+        itemService.save(new SaveComment("Comment for item2"), item2.getItemId(), booker.getId());
+
+        List<ItemViewOwner> all = new ArrayList<>();
+        itemService.streamAllByUserId(owner.getId(), null, all::addAll);
+        List<ItemViewOwner> afterFirst = new ArrayList<>();
+        itemService.streamAllByUserId(owner.getId(), item1.getItemId(), afterFirst::addAll);
+
+        assertThat(all.stream().map(ItemViewOwner::getItemId).toList(),
+                equalTo(List.of(item1.getItemId(), item2.getItemId())));
+        assertThat(all.getLast().getComments().getFirst().getText(), equalTo("Comment for item2"));
+        assertThat(all.getLast().getLastBooking().getBookingId(), equalTo(booking.getBookingId()));
+        assertThat(afterFirst.stream().map(ItemViewOwner::getItemId).toList(),
+                equalTo(List.of(item2.getItemId())));
+    }
+
+    @Test
+    public void streamAllByUserIdAcrossChunksTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            itemDtos.add(baseServiceTest.createItemDto("Item" + i, "Item", true));
+        }
+        itemService.saveAll(itemDtos, owner.getId());
+
+        List<List<ItemViewOwner>> chunks = new ArrayList<>();
+        itemService.streamAllByUserId(owner.getId(), null, chunk -> chunks.add(List.copyOf(chunk)));
+        List<Long> ids = chunks.stream().flatMap(List::stream).map(ItemViewOwner::getItemId).toList();
+
+        assertThat(chunks.stream().map(List::size).toList(), equalTo(List.of(500, 1)));
+        assertThat(ids, equalTo(ids.stream().distinct().sorted().toList()));
+    }
+
+    @Test
+    public void findAllByUserIdWithCommentsTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item1 = itemService.save(baseServiceTest.createItemDto("Test1", "Test", true), owner.getId());
+        Item item2 = itemService.save(baseServiceTest.createItemDto("Test2", "Test", true), owner.getId());
+        Booking booking = bookingService.save(baseServiceTest.createBookingSave(
+                item2,
+                LocalDateTime.of(2000, 10, 1, 1, 1),
+                LocalDateTime.of(2000, 10, 1, 1, 2)
+        ), booker.getId());
+        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, owner.getId());
+        itemService.save(new SaveComment("Comment for item2"), item2.getItemId(), booker.getId());
+
+        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(owner.getId(), null, 10);
+
+        assertThat(itemViewOwnerList.size(), equalTo(2));
+        for (ItemViewOwner itemViewOwner : itemViewOwnerList) {
+            if (itemViewOwner.getItemId().equals(item1.getItemId())) {
+                assertThat(itemViewOwner.getComments(), empty());
+                assertThat(itemViewOwner.getLastBooking(), equalTo(null));
+            } else {
+                assertThat(itemViewOwner.getComments().size(), equalTo(1));
+                assertThat(itemViewOwner.getComments().getFirst().getText(), equalTo("Comment for item2"));
+                assertThat(itemViewOwner.getLastBooking().getUser().getId(), equalTo(booker.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void findAllByUserIdWithEqualBookingStartTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = bookingService.save(
+                baseServiceTest.createBookingSave(item, start, start.plusHours(1)), booker.getId());
+        Booking second = bookingService.save(
+                baseServiceTest.createBookingSave(item, start, start.plusHours(2)), booker.getId());
+        Booking past = bookingService.save(baseServiceTest.createBookingSave(
+                item, start.minusDays(3), start.minusDays(2)), booker.getId());
+        bookingService.bookingConfirmationOrRejection(first.getBookingId(), true, owner.getId());
+        bookingService.bookingConfirmationOrRejection(past.getBookingId(), true, owner.getId());
+        // Пересекающиеся подтверждённые бронирования сервис не создаёт, моделируем данные, записанные до проверки
+        em.createQuery("UPDATE Booking b SET b.bookingStatus = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+                        "WHERE b.bookingId = :bookingId")
+                .setParameter("bookingId", second.getBookingId())
+                .executeUpdate();
+
+        List<ItemViewOwner> itemViewOwnerList = itemService.findAllByUserId(owner.getId(), null, 10);
+
+        assertThat(itemViewOwnerList.size(), equalTo(1));
+        assertThat(itemViewOwnerList.getFirst().getNextBooking().getBookingId(), equalTo(first.getBookingId()));
+        assertThat(itemViewOwnerList.getFirst().getLastBooking().getBookingId(), equalTo(past.getBookingId()));
+    }
+
     @Test
     public void findByIdTest() {
         User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
@@ -192,6 +371,79 @@ public class ItemServiceTest {
         assertThat(itemViewOwner.getNextBooking(), equalTo(null));
     }
 
+    @Test
+    public void findByIdWithApprovedBookingsTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.minusDays(4), now.minusDays(3)), booker.getId());
+        // Неподтверждённое бронирование не становится последним, хотя закончилось позже
+        bookingService.save(
+                baseServiceTest.createBookingSave(item, now.minusDays(2), now.minusDays(1)), booker.getId());
+        Booking next = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.plusDays(1), now.plusDays(2)), booker.getId());
+        Booking later = bookingService.save(
+                baseServiceTest.createBookingSave(item, now.plusDays(3), now.plusDays(4)), booker.getId());
+        bookingService.bookingConfirmationOrRejection(past.getBookingId(), true, owner.getId());
+        bookingService.bookingConfirmationOrRejection(next.getBookingId(), true, owner.getId());
+        bookingService.bookingConfirmationOrRejection(later.getBookingId(), true, owner.getId());
+
+        ItemViewOwner itemViewOwner = itemService.findById(item.getItemId(), owner.getId());
+
+        assertThat(itemViewOwner.getLastBooking().getBookingId(), equalTo(past.getBookingId()));
+        assertThat(itemViewOwner.getLastBooking().getUser().getName(), equalTo("booker"));
+        assertThat(itemViewOwner.getNextBooking().getBookingId(), equalTo(next.getBookingId()));
+        assertThat(itemService.findById(item.getItemId(), booker.getId()).getNextBooking(), equalTo(null));
+
+        bookingService.bookingConfirmationOrRejection(next.getBookingId(), false, owner.getId());
+
+        assertThat(itemService.findById(item.getItemId(), owner.getId()).getNextBooking().getBookingId(),
+                equalTo(later.getBookingId()));
+    }
+
+    @Test
+    public void findByIdCachedAndEvictedOnUpdateTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), user.getId());
+        itemService.findById(item.getItemId(), user.getId());
+
+        em.createQuery("UPDATE Item i SET i.name = 'Changed' WHERE i.itemId = :itemId")
+                .setParameter("itemId", item.getItemId())
+                .executeUpdate();
+        em.clear();
+        assertThat(itemService.findById(item.getItemId(), user.getId()).getName(), equalTo("Test"));
+
+        ItemUpdate itemUpdate = new ItemUpdate();
+        itemUpdate.setDescription("Updated");
+        itemService.update(itemUpdate, item.getItemId(), user.getId());
+        ItemViewOwner itemViewOwner = itemService.findById(item.getItemId(), user.getId());
+        assertThat(itemViewOwner.getName(), equalTo("Changed"));
+        assertThat(itemViewOwner.getDescription(), equalTo("Updated"));
+    }
+
+    @Test
+    public void findByIdEvictedOnCommentAuthorRenameTest() {
+        User owner = userService.save(baseServiceTest.createUser("owner", "owner@mail.ru"));
+        User booker = userService.save(baseServiceTest.createUser("booker", "booker@mail.ru"));
+        Item item = itemService.save(baseServiceTest.createItemDto("Test", "Test", true), owner.getId());
+        Booking booking = bookingService.save(baseServiceTest.createBookingSave(
+                item,
+                LocalDateTime.of(2000, 10, 1, 1, 1),
+                LocalDateTime.of(2000, 10, 1, 1, 2)
+        ), booker.getId());
+        bookingService.bookingConfirmationOrRejection(booking.getBookingId(), true, owner.getId());
+        itemService.save(new SaveComment("Comment"), item.getItemId(), booker.getId());
+        assertThat(itemService.findById(item.getItemId(), owner.getId()).getComments().getFirst().getAuthorName(),
+                equalTo("booker"));
+
+        userService.update(new UserUpdate("renamed", null), booker.getId());
+
+        assertThat(itemService.findById(item.getItemId(), owner.getId()).getComments().getFirst().getAuthorName(),
+                equalTo("renamed"));
+    }
+
     @Test
     public void findByIdWithInvalidIdTest() {
         User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
@@ -217,16 +469,80 @@ public class ItemServiceTest {
         itemService.save(itemDto4, user.getId());
         itemService.save(itemDto5, user.getId());
         itemService.save(itemDto6, user.getId());
-        List<ItemView> itemViewOwnerList = itemService.findAllByName("Test");
+        List<ItemView> itemViewOwnerList = itemService.findAllByName("Test", 0, 10);
         assertThat(itemViewOwnerList.size(), equalTo(6));
     }
 
+    @Test
+    public void findAllByNameRankedAndPagedTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        itemService.save(baseServiceTest.createItemDto("null", "Drill", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Cordless drill", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Drill set", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("drill", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Drill", "null", false), user.getId());
+
+        List<ItemView> firstPage = itemService.findAllByName("Drill", 0, 2);
+        List<ItemView> secondPage = itemService.findAllByName("Drill", 2, 2);
+
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(firstPage.get(0).getName(), equalTo("drill"));
+        assertThat(firstPage.get(1).getName(), equalTo("Drill set"));
+        assertThat(secondPage.size(), equalTo(2));
+        assertThat(secondPage.get(0).getName(), equalTo("Cordless drill"));
+        assertThat(secondPage.get(1).getDescription(), equalTo("Drill"));
+    }
+
+    @Test
+    public void findAllByNameUnalignedOffsetTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        itemService.save(baseServiceTest.createItemDto("null", "Drill", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Cordless drill", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Drill set", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("drill", "null", true), user.getId());
+
+        List<ItemView> page = itemService.findAllByName("Drill", 3, 2);
+
+        assertThat(page.size(), equalTo(1));
+        assertThat(page.getFirst().getDescription(), equalTo("Drill"));
+    }
+
+    @Test
+    public void findAllByNameWithLikeWildcardsTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        itemService.save(baseServiceTest.createItemDto("Drill", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("snake_case", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("100% cotton", "null", true), user.getId());
+
+        List<ItemView> underscore = itemService.findAllByName("e_c", 0, 10);
+        List<ItemView> percent = itemService.findAllByName("0% c", 0, 10);
+
+        assertThat(underscore.stream().map(ItemView::getName).toList(), equalTo(List.of("snake_case")));
+        assertThat(percent.stream().map(ItemView::getName).toList(), equalTo(List.of("100% cotton")));
+    }
+
+    @Test
+    public void findAllByNameShortTextMatchesNamePrefixOnlyTest() {
+        User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+        itemService.save(baseServiceTest.createItemDto("Drill set", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("Cordless drill", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("null", "Dr. drill", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("dr", "null", true), user.getId());
+        itemService.save(baseServiceTest.createItemDto("_x", "null", true), user.getId());
+
+        List<ItemView> items = itemService.findAllByName("Dr", 0, 10);
+        List<ItemView> underscore = itemService.findAllByName("_", 0, 10);
+
+        assertThat(items.stream().map(ItemView::getName).toList(), equalTo(List.of("dr", "Drill set")));
+        assertThat(underscore.stream().map(ItemView::getName).toList(), equalTo(List.of("_x")));
+    }
+
     @Test
     public void findAllByNameWithInvalidNameTest() {
         User user = userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
         ItemDto itemDto = baseServiceTest.createItemDto("Test", "null", true);
         itemService.save(itemDto, user.getId());
-        List<ItemView> itemViewOwnerList = itemService.findAllByName("");
+        List<ItemView> itemViewOwnerList = itemService.findAllByName("", 0, 10);
         assertThat(itemViewOwnerList.size(), equalTo(0));
     }
 
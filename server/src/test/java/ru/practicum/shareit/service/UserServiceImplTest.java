@@ -9,7 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
-import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationDataException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -44,10 +44,70 @@ public class UserServiceImplTest {
         userService.save(user2);
         userService.save(user3);
         userService.save(user4);
-        List<UserDto> users = userService.findAll();
+        List<UserDto> users = userService.findAll(null, null, 10);
         assertThat(users.size(), equalTo(4));
     }
 
+    @Test
+    public void findAllAfterCursorTest() {
+        User user1 = userService.save(baseServiceTest.createUser("test1", "test1@mail.ru"));
+        User user2 = userService.save(baseServiceTest.createUser("test2", "test2@mail.ru"));
+        User user3 = userService.save(baseServiceTest.createUser("test3", "test3@mail.ru"));
+
+        List<UserDto> firstPage = userService.findAll(null, null, 2);
+        List<UserDto> secondPage = userService.findAll(null, firstPage.getLast().getId(), 2);
+
+        assertThat(firstPage.stream().map(UserDto::getId).toList(), equalTo(List.of(user1.getId(), user2.getId())));
+        assertThat(secondPage.stream().map(UserDto::getId).toList(), equalTo(List.of(user3.getId())));
+    }
+
+    @Test
+    public void findAllByPrefixTest() {
+        User anna = userService.save(baseServiceTest.createUser("Anna", "anna@mail.ru"));
+        User boris = userService.save(baseServiceTest.createUser("Boris", "an_boris@mail.ru"));
+        userService.save(baseServiceTest.createUser("Ivan", "ivan@mail.ru"));
+        userService.save(baseServiceTest.createUser("Zoe", "anxboris@mail.ru"));
+
+        List<UserDto> byNameOrEmail = userService.findAll("AN", null, 10);
+        List<UserDto> withWildcard = userService.findAll("an_", null, 10);
+
+        assertThat(byNameOrEmail.size(), equalTo(3));
+        assertThat(byNameOrEmail.getFirst().getId(), equalTo(anna.getId()));
+        assertThat(withWildcard.stream().map(UserDto::getId).toList(), equalTo(List.of(boris.getId())));
+    }
+
+    @Test
+    public void findAllByPrefixKeysetPagesTest() {
+        User bob = userService.save(baseServiceTest.createUser("bob", "zed@mail.ru"));
+        User alex = userService.save(baseServiceTest.createUser("Alex", "alex@mail.ru"));
+        User zoe = userService.save(baseServiceTest.createUser("Zoe", "alzoe@mail.ru"));
+        User albert = userService.save(baseServiceTest.createUser("albert", "albert@mail.ru"));
+        User ivan = userService.save(baseServiceTest.createUser("Ivan", "al@mail.ru"));
+        userService.save(baseServiceTest.createUser("Alex", "bob@mail.ru"));
+
+        List<UserDto> firstPage = userService.findAll("al", null, 2);
+        List<UserDto> secondPage = userService.findAll("al", firstPage.getLast().getId(), 2);
+        List<UserDto> thirdPage = userService.findAll("al", secondPage.getLast().getId(), 2);
+        List<UserDto> lastPage = userService.findAll("al", thirdPage.getLast().getId(), 2);
+
+        // сначала по (имя, id): albert, Alex, Alex; затем по email те, чьё имя не подходит: al@, alzoe@
+        assertThat(firstPage.stream().map(UserDto::getId).toList(), equalTo(List.of(albert.getId(), alex.getId())));
+        assertThat(secondPage.getFirst().getName(), equalTo("Alex"));
+        assertThat(secondPage.getLast().getId(), equalTo(ivan.getId()));
+        assertThat(thirdPage.stream().map(UserDto::getId).toList(), equalTo(List.of(zoe.getId())));
+        assertThat(lastPage, empty());
+        assertThat(List.of(firstPage, secondPage, thirdPage).stream().flatMap(List::stream)
+                .noneMatch(user -> user.getId().equals(bob.getId())), equalTo(true));
+    }
+
+    @Test
+    public void findAllWithInvalidSizeTest() {
+        userService.save(baseServiceTest.createUser("test", "test@mail.ru"));
+
+        assertThrows(ValidationDataException.class, () -> userService.findAll(null, null, 0));
+        assertThrows(ValidationDataException.class, () -> userService.findAll("te", null, -1));
+    }
+
     @Test
     public void findByIdTest() {
         User user = baseServiceTest.createUser("test", "test@mail.ru");
@@ -70,36 +130,6 @@ public class UserServiceImplTest {
         assertThat(userDto.getName(), equalTo(user.getName()));
     }
 
-    @Test
-    public void findByNameTest() {
-        User user1 = baseServiceTest.createUser("test1", "test1@mail.ru");
-        User user2 = baseServiceTest.createUser("test2", "test2@mail.ru");
-        User user3 = baseServiceTest.createUser("test3", "test3@mail.ru");
-        User user4 = baseServiceTest.createUser("test4", "test4@mail.ru");
-        userService.save(user1);
-        userService.save(user2);
-        userService.save(user3);
-        userService.save(user4);
-        List<UserDto> userDtoList = userService.findByName("test");
-        assertThat(userDtoList, notNullValue());
-        assertThat(userDtoList.size(), equalTo(4));
-    }
-
-    @Test
-    public void findByNameWithInvalidNameTest() {
-        User user1 = baseServiceTest.createUser("test1", "test1@mail.ru");
-        User user2 = baseServiceTest.createUser("test2", "test2@mail.ru");
-        User user3 = baseServiceTest.createUser("test3", "test3@mail.ru");
-        User user4 = baseServiceTest.createUser("test4", "test4@mail.ru");
-        userService.save(user1);
-        userService.save(user2);
-        userService.save(user3);
-        userService.save(user4);
-        NotFoundException exception = assertThrows(NotFoundException.class, () -> userService.findByName("Jhon"));
-        assertThat(exception, notNullValue());
-        assertThat(exception.getMessage(), equalTo("User with name Jhon not found"));
-    }
-
     @Test
     public void saveUserTest() {
         User user = baseServiceTest.createUser("test", "test@mail.ru");
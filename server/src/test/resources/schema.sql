@@ -1,3 +1,15 @@
+-- Схема применяется при каждом запуске (spring.sql.init.mode=always), поэтому файл ведётся как
+-- упорядоченный журнал изменений:
+--   * изменения выполняются сверху вниз по номерам шагов; новое изменение дописывается в конец
+--     следующим шагом, уже выпущенные шаги не переставляются и не меняются;
+--   * каждая инструкция идемпотентна (IF NOT EXISTS / IF EXISTS), поэтому на пустой базе файл
+--     строит схему целиком, а на уже обновлённой сводится к проверкам каталога и ничего не меняет;
+--   * отменённое изменение убирается из своего шага, а для баз, где оно уже применено, дописывается
+--     шаг отмены (например, DROP INDEX IF EXISTS): объект не создаётся при запуске, чтобы тут же
+--     удалиться.
+-- Повторное применение проверяет SchemaIdempotencyTest.
+
+-- Шаг 1. Таблицы
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -56,3 +68,58 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (user_id)
 );
 
+-- Шаг 2. Индексы под фильтры и сортировки запросов списков
+CREATE INDEX IF NOT EXISTS idx_requests_user_create_date ON requests (user_id, create_date);
+
+CREATE INDEX IF NOT EXISTS idx_requests_create_date ON requests (create_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, booking_status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_user_start ON bookings (user_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_user_status_start ON bookings (user_id, booking_status, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_user_item_end ON bookings (user_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+-- Шаг 3. Последовательности id для пакетной вставки (allocationSize = 50)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+-- Шаг 4. Индексы по бронированиям вещи для списков владельца
+CREATE INDEX IF NOT EXISTS idx_bookings_user_end ON bookings (user_id, end_date);
+
+-- idx_bookings_item_start и idx_bookings_item_end отменены шагом 6
+
+-- Шаг 5. Указатели на последнее и следующее подтверждённое бронирование вещи для списка вещей владельца
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_start TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_items_next_booking_start ON items (next_booking_start);
+
+-- Шаг 6. Списки владельца идут через idx_items_user_id и idx_bookings_item_status_start; индексы
+-- шага 4 по (item_id, start_date) и (item_id, end_date) планы не использовали.
+DROP INDEX IF EXISTS idx_bookings_item_start;
+
+DROP INDEX IF EXISTS idx_bookings_item_end;
+
+-- Шаг 7. Отметка о пересчитанных указателях шага 5. Вещи с false (существовавшие до шага и созданные
+-- с последнего запуска без подтверждённых бронирований) один раз пересчитываются при старте
+-- (ItemBookingPointerSweeper.backfill); дальше указатели поддерживают подтверждение бронирований
+-- и сдвиг по времени, а повторные запуски их не переписывают.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_pointers_ready BOOLEAN NOT NULL DEFAULT FALSE;